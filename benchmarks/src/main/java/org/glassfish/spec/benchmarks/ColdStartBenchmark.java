@@ -0,0 +1,146 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the cold start of the standalone verifier, with and without
+ * the class data sharing archive. Build the {@code verifier} module first,
+ * its location can be set with {@code -Dspec.verifier.dir}.
+ *
+ * @author Romain Grecourt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ColdStartBenchmark {
+
+    /**
+     * {@code true} to use the class data sharing archive.
+     */
+    @Param({"false", "true"})
+    private boolean cds;
+
+    /**
+     * The JAR file to verify.
+     */
+    private File file;
+
+    /**
+     * The verifier command line.
+     */
+    private List<String> command;
+
+    /**
+     * Create the JAR file and the verifier command line.
+     * @throws IOException if an error occurs while writing the JAR file
+     */
+    @Setup
+    public void setup() throws IOException {
+        File dir = new File(System.getProperty("spec.verifier.dir",
+                "verifier/target"));
+        File jar = new File(dir, "spec-verifier.jar");
+        File archive = new File(dir, "spec-verifier-"
+                + System.getProperty("java.version") + ".jsa");
+        if (!jar.exists() || (cds && !archive.exists())) {
+            throw new IllegalStateException("verifier not built in " + dir);
+        }
+        file = SyntheticJars.create(10);
+        command = new ArrayList<String>();
+        command.add(new File(System.getProperty("java.home"), "bin/java")
+                .getPath());
+        command.add("-XX:TieredStopAtLevel=1");
+        if (cds) {
+            command.add("-Xshare:auto");
+            command.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        }
+        command.add("-jar");
+        command.add(jar.getAbsolutePath());
+        command.add("--isApi=api");
+        command.add("--apijar=" + file.getAbsolutePath());
+        command.add("--apipackage=javax.courgette");
+        command.add("--specversion=2.4");
+        command.add("--specimplversion=2.4.3");
+    }
+
+    /**
+     * Delete the JAR file.
+     */
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * Benchmark a verification in a new JVM.
+     * @return the exit status
+     * @throws IOException if the process cannot be started
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Benchmark
+    public int verify() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        return process.waitFor();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metadata;
+import org.glassfish.spec.Spec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark reading and checking synthetic JAR files.
+ *
+ * @author Romain Grecourt
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JarBenchmark {
+
+    /**
+     * The number of class entries in the JAR file.
+     */
+    @Param({"10", "1000", "50000"})
+    private int entries;
+
+    /**
+     * The JAR file.
+     */
+    private File file;
+
+    /**
+     * The opened JAR file.
+     */
+    private JarFile jar;
+
+    /**
+     * A spec populated from the JAR file, used to check the classes.
+     */
+    private Spec spec;
+
+    /**
+     * Create the JAR file.
+     * @throws IOException if an error occurs while writing the JAR file
+     */
+    @Setup
+    public void setup() throws IOException {
+        file = SyntheticJars.create(entries);
+        jar = new JarFile(file);
+        spec = Specs.create("api", false);
+        spec.read(jar);
+    }
+
+    /**
+     * Close and delete the JAR file.
+     * @throws IOException if an error occurs while closing the JAR file
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        jar.close();
+        file.delete();
+    }
+
+    /**
+     * Benchmark {@link Metadata#fromJar(JarFile)}.
+     * @return the metadata
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    @Benchmark
+    public Metadata metadataFromJar() throws IOException {
+        return Metadata.fromJar(jar);
+    }
+
+    /**
+     * Benchmark {@link Artifact#fromJar(JarFile)}.
+     * @return the artifact
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    @Benchmark
+    public Artifact artifactFromJar() throws IOException {
+        return Artifact.fromJar(jar);
+    }
+
+    /**
+     * Benchmark {@link JarScanner#scan(File)}.
+     * @return the JAR contents
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    @Benchmark
+    public JarScanner.Contents scanFile() throws IOException {
+        return JarScanner.scan(file);
+    }
+
+    /**
+     * Benchmark {@link Spec#verify()} including the check of the classes.
+     * @return the errors
+     */
+    @Benchmark
+    public List<String> checkClasses() {
+        spec.verify();
+        return spec.getErrors();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.benchmarks;
+
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.Spec;
+
+/**
+ * Spec configurations used by the benchmarks, modeled after the test sets.
+ *
+ * @author Romain Grecourt
+ */
+final class Specs {
+
+    /**
+     * Cannot be instantiated.
+     */
+    private Specs() {
+    }
+
+    /**
+     * Create a spec configuration.
+     * @param jarType the JAR type, {@code api} or {@code impl}
+     * @param nonFinal {@code true} for a non final spec
+     * @return the created spec
+     */
+    static Spec create(final String jarType, final boolean nonFinal) {
+        Spec spec = new Spec();
+        spec.setGroupIdPrefix(Spec.JAVAX_GROUP_ID);
+        spec.setJarType(jarType);
+        spec.setNonFinal(nonFinal);
+        if ("api".equals(jarType)) {
+            spec.setApiPackage("javax.courgette");
+            spec.setImplNamespace("");
+            spec.setImplVersion("");
+            spec.setNewImplVersion("");
+            spec.setImplBuild("");
+            if (nonFinal) {
+                spec.setArtifact(new Artifact("javax.courgette",
+                        "javax.courgette-api", "2.1-b35"));
+                spec.setSpecVersion("2.0");
+                spec.setNewSpecVersion("2.1");
+                spec.setSpecImplVersion("2.1.2");
+                spec.setSpecBuild("35");
+            } else {
+                spec.setArtifact(new Artifact("javax.courgette",
+                        "javax.courgette-api", "2.4.3"));
+                spec.setSpecVersion("2.4");
+                spec.setNewSpecVersion("");
+                spec.setSpecImplVersion("2.4.3");
+                spec.setSpecBuild("");
+            }
+        } else {
+            spec.setApiPackage("javax.courgette");
+            spec.setImplNamespace("org.ratatouille");
+            spec.setSpecImplVersion("");
+            if (nonFinal) {
+                spec.setArtifact(new Artifact("org.ratatouille",
+                        "javax.courgette", "1.5-b01"));
+                spec.setSpecVersion("1.4");
+                spec.setNewSpecVersion("1.5");
+                spec.setImplVersion("1.4.4");
+                spec.setNewImplVersion("1.5");
+                spec.setSpecBuild("01");
+                spec.setImplBuild("01");
+            } else {
+                spec.setArtifact(new Artifact("org.ratatouille",
+                        "javax.courgette", "1.5.3"));
+                spec.setSpecVersion("1.5");
+                spec.setNewSpecVersion("");
+                spec.setImplVersion("1.5.3");
+                spec.setNewImplVersion("");
+                spec.setSpecBuild("");
+                spec.setImplBuild("");
+            }
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+/**
+ * Create synthetic spec JAR files.
+ *
+ * @author Romain Grecourt
+ */
+final class SyntheticJars {
+
+    /**
+     * Number of classes per package.
+     */
+    private static final int CLASSES_PER_PACKAGE = 25;
+
+    /**
+     * Cannot be instantiated.
+     */
+    private SyntheticJars() {
+    }
+
+    /**
+     * Create a JAR file for the {@code javax.courgette} final API.
+     * @param entries the number of class entries
+     * @return the created file, deleted on exit
+     * @throws IOException if an error occurs while writing the file
+     */
+    static File create(final int entries) throws IOException {
+        File file = File.createTempFile("spec-version-" + entries, ".jar");
+        file.deleteOnExit();
+
+        Manifest manifest = new Manifest();
+        Attributes attrs = manifest.getMainAttributes();
+        attrs.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attrs.putValue("Bundle-SymbolicName", "javax.courgette-api");
+        attrs.putValue("Bundle-Version", "2.4.3");
+        attrs.putValue("Extension-Name", "javax.courgette");
+        attrs.putValue("Specification-Version", "2.4");
+        attrs.putValue("Implementation-Version", "2.4.3");
+
+        byte[] clazz = new byte[]{
+            (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
+
+        JarOutputStream jos = new JarOutputStream(
+                new FileOutputStream(file), manifest);
+        try {
+            jos.putNextEntry(new ZipEntry("META-INF/maven/javax.courgette/"
+                    + "javax.courgette-api/pom.properties"));
+            jos.write(("groupId=javax.courgette\n"
+                    + "artifactId=javax.courgette-api\n"
+                    + "version=2.4.3\n").getBytes("UTF-8"));
+            jos.closeEntry();
+            for (int i = 0; i < entries; i++) {
+                int pkg = i / CLASSES_PER_PACKAGE;
+                jos.putNextEntry(new ZipEntry("javax/courgette/p"
+                        + (pkg % 10) + "/p" + pkg + "/Class" + i + ".class"));
+                jos.write(clazz);
+                jos.closeEntry();
+            }
+        } finally {
+            jos.close();
+        }
+        return file;
+    }
+}
@@ -41,15 +41,10 @@
 package org.glassfish.spec;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Enumeration;
 import java.util.Properties;
-import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.zip.ZipEntry;
 
 import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 
 /**
  * Represent the API JAR file as a Maven artifact.
@@ -138,7 +133,7 @@ public final class Artifact {
     public Artifact(final String gId, final String aId, final String v) {
         this.groupId = gId;
         this.artifactId = aId;
-        this.version = new DefaultArtifactVersion(v);
+        this.version = Versions.parse(v);
         this.buildNumber = getBuildNumber(version.getQualifier());
     }
 
@@ -160,6 +155,7 @@ public final class Artifact {
 
     /**
      * Get the version for this artifact.
+     * The returned version is shared, see {@link Versions#parse(String)}.
      * @return the version
      */
     public ArtifactVersion getVersion() {
@@ -195,7 +191,7 @@ public final class Artifact {
      * @param v the artifactId value to use
      */
     public void setVersion(final String v) {
-        this.version = new DefaultArtifactVersion(v);
+        this.version = Versions.parse(v);
         this.buildNumber = getBuildNumber(this.version.getQualifier());
     }
 
@@ -207,23 +203,6 @@ public final class Artifact {
         return buildNumber;
     }
 
-    /**
-     * Get the {@link ZipEntry} for {@code pom.properties} in the given
-     * JAR file.
-     * @param jar the jar file to process
-     * @return the {@link ZipEntry} if found, {@code null} otherwise
-     */
-    private static ZipEntry getPomPropertiesFile(final JarFile jar) {
-        Enumeration<JarEntry> entries = jar.entries();
-        while (entries.hasMoreElements()) {
-            JarEntry entry = entries.nextElement();
-            if (entry.getName().endsWith("pom.properties")) {
-                return entry;
-            }
-        }
-        return null;
-    }
-
     /**
      * Create an {@link Artifact} instance from a given JAR file.
      * @param jar the jar file to process
@@ -231,16 +210,15 @@ public final class Artifact {
      * @throws IOException if an error occurs while reading JAR file entries
      */
     public static Artifact fromJar(final JarFile jar) throws IOException {
-        ZipEntry entry = getPomPropertiesFile(jar);
-        if (entry == null) {
-            throw new RuntimeException(
-                    "unable to find pom.properties "
-                    + "files inside " + jar.getName());
-        }
-        InputStream is = jar.getInputStream(entry);
-        Properties pomProps = new Properties();
-        pomProps.load(is);
+        return JarScanner.scan(jar).getArtifact();
+    }
 
+    /**
+     * Create an {@link Artifact} instance from {@code pom.properties}.
+     * @param pomProps the loaded {@code pom.properties}
+     * @return the create {@link Artifact} instance
+     */
+    public static Artifact fromPomProperties(final Properties pomProps) {
         return new Artifact(
                 pomProps.getProperty("groupId"),
                 pomProps.getProperty("artifactId"),
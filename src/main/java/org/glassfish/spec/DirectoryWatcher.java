@@ -0,0 +1,207 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch a directory tree for created or modified files.
+ * The changes are reported once the directory has been quiet for the
+ * debounce delay, so that a file being copied is reported once, after the
+ * copy is complete. If the events of a directory overflow, all the files
+ * of the directory tree are reported.
+ *
+ * @author Romain Grecourt
+ */
+public final class DirectoryWatcher implements Closeable {
+
+    /**
+     * The watch service.
+     */
+    private final WatchService watcher;
+
+    /**
+     * The watched directories by watch key.
+     */
+    private final Map<WatchKey, Path> dirs = new HashMap<WatchKey, Path>();
+
+    /**
+     * The debounce delay in milliseconds.
+     */
+    private final long debounce;
+
+    /**
+     * Create a new {@link DirectoryWatcher} instance.
+     * @param dir the directory to watch, including its sub-directories
+     * @param delay the debounce delay in milliseconds
+     * @throws IOException if an error occurs while registering the
+     * directories
+     */
+    public DirectoryWatcher(final File dir, final long delay)
+            throws IOException {
+
+        this.watcher = FileSystems.getDefault().newWatchService();
+        this.debounce = delay;
+        register(dir.toPath());
+    }
+
+    /**
+     * Register a directory tree.
+     * @param root the root directory
+     * @throws IOException if an error occurs while registering
+     */
+    private void register(final Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir,
+                    final BasicFileAttributes attrs) throws IOException {
+
+                WatchKey key = dir.register(watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                dirs.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Wait for changes.
+     * @param timeout the maximum time in milliseconds to wait for a first
+     * change, or a negative value to wait forever
+     * @return the created or modified regular files, sorted, empty if the
+     * timeout elapsed
+     * @throws IOException if an error occurs while registering a new
+     * directory
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<File> poll(final long timeout)
+            throws IOException, InterruptedException {
+
+        Set<Path> changed = new TreeSet<Path>();
+        WatchKey key = timeout < 0
+                ? watcher.take()
+                : watcher.poll(timeout, TimeUnit.MILLISECONDS);
+        while (key != null) {
+            Path dir = dirs.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (dir == null) {
+                    continue;
+                }
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // events were lost, report the whole directory tree
+                    // and register the directories created meanwhile
+                    register(dir);
+                    addFiles(dir, changed);
+                    continue;
+                }
+                Path path = dir.resolve((Path) event.context());
+                if (Files.isDirectory(path)) {
+                    if (event.kind() == StandardWatchEventKinds
+                            .ENTRY_CREATE) {
+                        register(path);
+                        addFiles(path, changed);
+                    }
+                } else {
+                    changed.add(path);
+                }
+            }
+            if (!key.reset()) {
+                dirs.remove(key);
+            }
+            // wait until the directory is quiet
+            key = watcher.poll(debounce, TimeUnit.MILLISECONDS);
+        }
+
+        List<File> files = new ArrayList<File>(changed.size());
+        for (Path path : changed) {
+            if (Files.isRegularFile(path)) {
+                files.add(path.toFile());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Add the files of a new directory tree, the files may have been created
+     * before the directory was registered.
+     * @param root the root directory
+     * @param changed the set of changed files to add to
+     * @throws IOException if an error occurs while listing the files
+     */
+    private static void addFiles(final Path root, final Set<Path> changed)
+            throws IOException {
+
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file,
+                    final BasicFileAttributes attrs) {
+
+                changed.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+}
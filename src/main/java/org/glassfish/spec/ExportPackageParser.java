@@ -0,0 +1,240 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass parser of the OSGi {@code Export-Package} manifest header.
+ * The header is a comma separated list of clauses, each clause has one or
+ * more package names followed by attributes ({@code name=value}) and
+ * directives ({@code name:=value}) separated by semicolons. Values may be
+ * quoted and contain commas and semicolons, e.g. {@code uses:="a,b"} or
+ * {@code version="[1.0,2.0)"}.
+ * <p>
+ * Only the package names and their version are extracted, the other
+ * attributes and directives are skipped without allocation.
+ *
+ * @author Romain Grecourt
+ */
+public final class ExportPackageParser {
+
+    /**
+     * The version attribute.
+     */
+    private static final String VERSION = "version";
+
+    /**
+     * The deprecated version attribute.
+     */
+    private static final String SPECIFICATION_VERSION =
+            "specification-version";
+
+    /**
+     * The version of the packages exported without version attribute.
+     */
+    public static final String DEFAULT_VERSION = "0.0.0";
+
+    /**
+     * Cannot be instantiated.
+     */
+    private ExportPackageParser() {
+    }
+
+    /**
+     * Parse an {@code Export-Package} header.
+     * @param header the header value, may be {@code null}
+     * @return the exported packages mapped to their version, in header
+     * order, the first export of a package wins
+     * @throws IllegalArgumentException if a quoted value is not terminated
+     */
+    public static Map<String, String> parse(final String header) {
+        if (header == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> exports = new LinkedHashMap<String, String>();
+        List<String> paths = new ArrayList<String>();
+        String version = null;
+        String specVersion = null;
+        int len = header.length();
+        int i = 0;
+        while (true) {
+            i = skipWhitespace(header, i);
+            int nameStart = i;
+            while (i < len && !isDelimiter(header, i)) {
+                i++;
+            }
+            int nameEnd = trimEnd(header, nameStart, i);
+            if (i < len && header.charAt(i) != ';'
+                    && header.charAt(i) != ',') {
+
+                // parameter, '=' or ':='
+                boolean directive = header.charAt(i) == ':';
+                i = skipWhitespace(header, i + (directive ? 2 : 1));
+                int valueStart;
+                int valueEnd;
+                if (i < len && header.charAt(i) == '"') {
+                    valueStart = i + 1;
+                    valueEnd = closingQuote(header, valueStart);
+                    i = valueEnd + 1;
+                } else {
+                    valueStart = i;
+                    while (i < len && header.charAt(i) != ';'
+                            && header.charAt(i) != ',') {
+                        i++;
+                    }
+                    valueEnd = trimEnd(header, valueStart, i);
+                }
+                if (!directive && is(header, nameStart, nameEnd, VERSION)) {
+                    version = header.substring(valueStart, valueEnd);
+                } else if (!directive && is(header, nameStart, nameEnd,
+                        SPECIFICATION_VERSION)) {
+                    specVersion = header.substring(valueStart, valueEnd);
+                }
+                i = skipWhitespace(header, i);
+            } else if (nameEnd > nameStart) {
+                paths.add(header.substring(nameStart, nameEnd));
+            }
+
+            if (i >= len || header.charAt(i) == ',') {
+                String v = version != null ? version
+                        : specVersion != null ? specVersion : DEFAULT_VERSION;
+                for (String path : paths) {
+                    if (!exports.containsKey(path)) {
+                        exports.put(path, v);
+                    }
+                }
+                paths.clear();
+                version = null;
+                specVersion = null;
+                if (i >= len) {
+                    break;
+                }
+            }
+            i++;
+        }
+        return Collections.unmodifiableMap(exports);
+    }
+
+    /**
+     * Test if the character at the given index ends a package name or a
+     * parameter name.
+     * @param s the header
+     * @param i the index
+     * @return {@code true} for {@code ;}, {@code ,}, {@code =} and
+     * {@code :=}
+     */
+    private static boolean isDelimiter(final String s, final int i) {
+        char c = s.charAt(i);
+        return c == ';' || c == ',' || c == '='
+                || (c == ':' && i + 1 < s.length() && s.charAt(i + 1) == '=');
+    }
+
+    /**
+     * Find the closing quote of a quoted value, backslash escapes the next
+     * character.
+     * @param s the header
+     * @param start the index after the opening quote
+     * @return the index of the closing quote
+     */
+    private static int closingQuote(final String s, final int start) {
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(
+                "unterminated quoted value in Export-Package: " + s);
+    }
+
+    /**
+     * Skip the whitespace characters.
+     * @param s the header
+     * @param start the start index
+     * @return the index of the first non whitespace character
+     */
+    private static int skipWhitespace(final String s, final int start) {
+        int i = start;
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Exclude the trailing whitespace characters of a region.
+     * @param s the header
+     * @param start the start index of the region
+     * @param end the end index of the region, exclusive
+     * @return the end index without the trailing whitespace characters
+     */
+    private static int trimEnd(final String s, final int start,
+            final int end) {
+
+        int i = end;
+        while (i > start && Character.isWhitespace(s.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Test if a region of the header is equal to a name.
+     * @param s the header
+     * @param start the start index of the region
+     * @param end the end index of the region, exclusive
+     * @param name the name
+     * @return {@code true} if the region is equal to the name
+     */
+    private static boolean is(final String s, final int start,
+            final int end, final String name) {
+
+        return end - start == name.length()
+                && s.regionMatches(start, name, 0, name.length());
+    }
+}
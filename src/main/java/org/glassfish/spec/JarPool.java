@@ -0,0 +1,228 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A bounded pool of open JAR files.
+ * Concurrent users of the same file share one reference counted
+ * {@link JarReader}, the reader is closed as soon as the last handle is
+ * closed. When the maximum number of open files is reached,
+ * {@link #acquire(File)} blocks until a file is closed.
+ *
+ * @author Romain Grecourt
+ */
+public final class JarPool {
+
+    /**
+     * Limits the number of open files.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The open files, guarded by this pool.
+     */
+    private final Map<String, Shared> open = new HashMap<String, Shared>();
+
+    /**
+     * Create a new {@link JarPool} instance.
+     * @param maxOpen the maximum number of files open at the same time
+     */
+    public JarPool(final int maxOpen) {
+        if (maxOpen < 1) {
+            throw new IllegalArgumentException("invalid maximum: " + maxOpen);
+        }
+        this.permits = new Semaphore(maxOpen);
+    }
+
+    /**
+     * Open a JAR file, or share the reader if the file is already open.
+     * @param file the file to open
+     * @return a handle to close when the reader is no longer used
+     * @throws IOException if an error occurs while opening the file, or if
+     * the thread is interrupted while waiting for a file to be closed
+     */
+    public Handle acquire(final File file) throws IOException {
+        String key = file.getAbsolutePath();
+        synchronized (this) {
+            Shared shared = open.get(key);
+            if (shared != null) {
+                shared.refs++;
+                return new Handle(shared);
+            }
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while opening "
+                    + file);
+        }
+        JarReader reader;
+        try {
+            reader = JarReader.open(file);
+        } catch (IOException ex) {
+            permits.release();
+            throw ex;
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+        synchronized (this) {
+            Shared shared = open.get(key);
+            if (shared != null) {
+                // opened concurrently by another thread
+                reader.close();
+                permits.release();
+            } else {
+                shared = new Shared(key, reader);
+                open.put(key, shared);
+            }
+            shared.refs++;
+            return new Handle(shared);
+        }
+    }
+
+    /**
+     * Get the number of open files.
+     * @return the number of open files
+     */
+    public synchronized int size() {
+        return open.size();
+    }
+
+    /**
+     * Release a reference to a shared reader.
+     * @param shared the shared reader
+     */
+    private void release(final Shared shared) {
+        synchronized (this) {
+            if (--shared.refs > 0) {
+                return;
+            }
+            open.remove(shared.key);
+        }
+        shared.reader.close();
+        permits.release();
+    }
+
+    /**
+     * A reference counted reader.
+     */
+    private static final class Shared {
+
+        /**
+         * The pool key.
+         */
+        private final String key;
+
+        /**
+         * The reader.
+         */
+        private final JarReader reader;
+
+        /**
+         * The number of open handles.
+         */
+        private int refs;
+
+        /**
+         * Create a new {@link Shared} instance.
+         * @param path the pool key
+         * @param jar the reader
+         */
+        Shared(final String path, final JarReader jar) {
+            this.key = path;
+            this.reader = jar;
+        }
+    }
+
+    /**
+     * A handle to an open JAR file.
+     */
+    public final class Handle implements Closeable {
+
+        /**
+         * The shared reader.
+         */
+        private final Shared shared;
+
+        /**
+         * {@code true} once this handle is closed.
+         */
+        private boolean closed;
+
+        /**
+         * Create a new {@link Handle} instance.
+         * @param sharedReader the shared reader
+         */
+        private Handle(final Shared sharedReader) {
+            this.shared = sharedReader;
+        }
+
+        /**
+         * Get the reader.
+         * @return the reader, must not be used after this handle is closed
+         */
+        public JarReader getReader() {
+            return shared.reader;
+        }
+
+        /**
+         * Release this handle, the reader is closed if it is not used by
+         * other handles.
+         */
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release(shared);
+            }
+        }
+    }
+}
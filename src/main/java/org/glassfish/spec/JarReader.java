@@ -0,0 +1,945 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Lightweight JAR file reader.
+ * The ZIP central directory is parsed directly from a memory-mapped file,
+ * entry names are read in place and only the entries explicitly requested
+ * with {@link #getInputStream(Entry)} are inflated, as they are read.
+ * The reader and its entries must not be used once closed. The mapping is
+ * released by the garbage collector and never unmapped eagerly, a read
+ * racing a close must not access unmapped memory.
+ *
+ * @author Romain Grecourt
+ */
+@SuppressWarnings("checkstyle:MagicNumber")
+public final class JarReader implements Closeable {
+
+    /**
+     * End of central directory record signature.
+     */
+    private static final int EOCD_SIG = 0x06054b50;
+
+    /**
+     * ZIP64 end of central directory locator signature.
+     */
+    private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+
+    /**
+     * ZIP64 end of central directory record signature.
+     */
+    private static final int ZIP64_EOCD_SIG = 0x06064b50;
+
+    /**
+     * Central directory file header signature.
+     */
+    private static final int CEN_SIG = 0x02014b50;
+
+    /**
+     * Local file header signature.
+     */
+    private static final int LOC_SIG = 0x04034b50;
+
+    /**
+     * Size of the end of central directory record.
+     */
+    private static final int EOCD_SIZE = 22;
+
+    /**
+     * Size of the ZIP64 end of central directory locator.
+     */
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+
+    /**
+     * Size of the central directory file header.
+     */
+    private static final int CEN_SIZE = 46;
+
+    /**
+     * Size of the local file header.
+     */
+    private static final int LOC_SIZE = 30;
+
+    /**
+     * Maximum size of the ZIP file comment.
+     */
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+
+    /**
+     * Compression method for entries stored without compression.
+     */
+    private static final int STORED = 0;
+
+    /**
+     * Compression method for deflated entries.
+     */
+    private static final int DEFLATED = 8;
+
+    /**
+     * The charset of the entry names.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The length of the class entries suffix.
+     */
+    private static final int CLASS_SUFFIX_LENGTH = ".class".length();
+
+    /**
+     * The name of the ZIP file.
+     */
+    private final String name;
+
+    /**
+     * The ZIP file content.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Offset of the central directory.
+     */
+    private final int cenOffset;
+
+    /**
+     * Number of entries in the central directory.
+     */
+    private final int size;
+
+    /**
+     * {@code true} once this reader is closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Create a new {@link JarReader} instance.
+     * @param zipName the name of the ZIP file
+     * @param content the ZIP file content
+     * @throws IOException if the content is not a valid ZIP file
+     */
+    public JarReader(final String zipName, final ByteBuffer content)
+            throws IOException {
+
+        this.name = zipName;
+        this.buffer = content.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int eocd = findEndOfCentralDirectory();
+        long entries = buffer.getShort(eocd + 10) & 0xffff;
+        long offset = buffer.getInt(eocd + 16) & 0xffffffffL;
+        if (entries == 0xffff || offset == 0xffffffffL) {
+            int locator = eocd - ZIP64_LOCATOR_SIZE;
+            if (locator < 0 || buffer.getInt(locator) != ZIP64_LOCATOR_SIG) {
+                throw new ZipException("invalid ZIP64 archive: " + name);
+            }
+            int zip64Eocd = checkOffset(buffer.getLong(locator + 8));
+            if (buffer.getInt(zip64Eocd) != ZIP64_EOCD_SIG) {
+                throw new ZipException("invalid ZIP64 archive: " + name);
+            }
+            entries = buffer.getLong(zip64Eocd + 32);
+            offset = buffer.getLong(zip64Eocd + 48);
+        }
+        this.cenOffset = checkOffset(offset);
+        this.size = (int) Math.min(entries, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Open the given JAR file.
+     * The file is memory-mapped, no file descriptor is kept open.
+     * @param file the file to open
+     * @return the created {@link JarReader} instance
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static JarReader open(final File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ZipException("file too large: " + file);
+            }
+            ByteBuffer mapped = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return new JarReader(file.getPath(), mapped);
+            } catch (IOException ex) {
+                // the mapping has not been shared yet
+                unmap(mapped);
+                throw ex;
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Close this reader.
+     * The memory mapping of a reader opened with {@link #open(File)} is
+     * released once the reader and its entry views are garbage collected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Check that this reader is not closed.
+     * @throws ZipException if this reader is closed
+     */
+    private void ensureOpen() throws ZipException {
+        if (closed) {
+            throw new ZipException(name + " is closed");
+        }
+    }
+
+    /**
+     * Release a memory mapping without waiting for the garbage collector.
+     * The mapping must not be referenced by any other buffer or thread.
+     * Failures are ignored, the mapping is then released when the buffer is
+     * garbage collected.
+     * @param mapped the mapped buffer
+     */
+    private static void unmap(final ByteBuffer mapped) {
+        try {
+            // Java 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner",
+                    ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), mapped);
+        } catch (NoSuchMethodException ex) {
+            // Java 8 and earlier
+            try {
+                Method cleanerMethod = mapped.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(mapped);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            } catch (Exception e) {
+                // ignore, the garbage collector releases the mapping
+            }
+        } catch (Exception ex) {
+            // ignore, the garbage collector releases the mapping
+        }
+    }
+
+    /**
+     * Get the name of the ZIP file.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of entries.
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create a new cursor positioned before the first entry.
+     * @return the created entry cursor
+     */
+    public Entry entries() {
+        return new Entry();
+    }
+
+    /**
+     * Find the offset of the end of central directory record.
+     * @return the offset
+     * @throws ZipException if the record is not found
+     */
+    private int findEndOfCentralDirectory() throws ZipException {
+        int min = Math.max(0,
+                buffer.limit() - EOCD_SIZE - MAX_COMMENT_SIZE);
+        for (int i = buffer.limit() - EOCD_SIZE; i >= min; i--) {
+            if (buffer.getInt(i) == EOCD_SIG) {
+                return i;
+            }
+        }
+        throw new ZipException("not a ZIP file: " + name);
+    }
+
+    /**
+     * Check that an offset is within the ZIP file content.
+     * @param offset the offset to check
+     * @return the offset
+     * @throws ZipException if the offset is invalid
+     */
+    private int checkOffset(final long offset) throws ZipException {
+        if (offset < 0 || offset >= buffer.limit()) {
+            throw new ZipException("invalid offset in ZIP file: " + name);
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Get the content of the given entry.
+     * Stored entries are read in place, deflated entries are inflated as the
+     * stream is read, see {@link EntryInputStream}. The stream must not be
+     * used after this reader is closed.
+     * @param entry the entry to read
+     * @return the entry content
+     * @throws IOException if an error occurs while reading the entry
+     */
+    public InputStream getInputStream(final Entry entry) throws IOException {
+        ByteBuffer data = getData(entry);
+        if (entry.method == STORED) {
+            return new BufferInputStream(data, false);
+        }
+        if (entry.method != DEFLATED) {
+            throw new ZipException("unsupported compression method "
+                    + entry.method + " for " + entry.getName());
+        }
+        return new EntryInputStream(new BufferInputStream(data, true));
+    }
+
+    /**
+     * Get the content of the given entry.
+     * Deflated entries are inflated in memory.
+     * @param entry the entry to read
+     * @return the entry content
+     * @throws IOException if an error occurs while reading the entry
+     */
+    public byte[] getBytes(final Entry entry) throws IOException {
+        ByteBuffer data = getData(entry);
+        if (entry.method == STORED) {
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            return bytes;
+        }
+        if (entry.method != DEFLATED) {
+            throw new ZipException("unsupported compression method "
+                    + entry.method + " for " + entry.getName());
+        }
+        if (entry.size > Integer.MAX_VALUE) {
+            throw new ZipException("entry too large: " + entry.getName());
+        }
+        return inflate(data, entry.size, entry.getName());
+    }
+
+    /**
+     * Inflate deflated data.
+     * @param data the deflated data
+     * @param size the uncompressed size
+     * @param entryName the entry name, used in error messages
+     * @return the inflated data
+     * @throws ZipException if the data is invalid
+     */
+    private static byte[] inflate(final ByteBuffer data, final long size,
+            final String entryName) throws ZipException {
+
+        // the extra dummy byte is required by the nowrap mode
+        byte[] input = new byte[data.remaining() + 1];
+        data.get(input, 0, input.length - 1);
+        byte[] output = new byte[(int) size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            int len = 0;
+            while (len < output.length && !inflater.finished()) {
+                int n = inflater.inflate(output, len, output.length - len);
+                if (n == 0 && (inflater.needsInput()
+                        || inflater.needsDictionary())) {
+                    break;
+                }
+                len += n;
+            }
+            if (len != output.length) {
+                throw new ZipException("invalid entry size for " + entryName);
+            }
+        } catch (DataFormatException ex) {
+            throw new ZipException(ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+        return output;
+    }
+
+    /**
+     * Get a nested ZIP file entry, e.g. a JAR file inside a distribution
+     * bundle.
+     * The nested file is not read until {@link Nested#open()} is invoked,
+     * the returned instance remains valid after the cursor moves to the next
+     * entry but not after this reader is closed.
+     * @param entry the entry
+     * @return the nested ZIP file
+     * @throws ZipException if the entry is invalid or uses an unsupported
+     * compression method
+     */
+    public Nested getNested(final Entry entry) throws ZipException {
+        if (entry.method != STORED && entry.method != DEFLATED) {
+            throw new ZipException("unsupported compression method "
+                    + entry.method + " for " + entry.getName());
+        }
+        if (entry.size > Integer.MAX_VALUE) {
+            throw new ZipException("entry too large: " + entry.getName());
+        }
+        return new Nested(name + "!/" + entry.getName(), getData(entry),
+                entry.method == DEFLATED, entry.size);
+    }
+
+    /**
+     * Get the compressed data of the given entry.
+     * @param entry the entry
+     * @return a view of the entry data
+     * @throws ZipException if the entry is invalid
+     */
+    ByteBuffer getData(final Entry entry) throws ZipException {
+        ensureOpen();
+        int loc = checkOffset(entry.locOffset);
+        if (buffer.getInt(loc) != LOC_SIG) {
+            throw new ZipException("invalid local header for "
+                    + entry.getName());
+        }
+        long start = (long) loc + LOC_SIZE
+                + (buffer.getShort(loc + 26) & 0xffff)
+                + (buffer.getShort(loc + 28) & 0xffff);
+        long end = start + entry.csize;
+        if (end > buffer.limit()) {
+            throw new ZipException("truncated entry " + entry.getName());
+        }
+        ByteBuffer data = buffer.duplicate();
+        // cast to Buffer, the ByteBuffer overloads do not exist on JDK 8
+        ((Buffer) data).position((int) start);
+        ((Buffer) data).limit((int) end);
+        return data.slice();
+    }
+
+    /**
+     * A cursor over the central directory entries.
+     * The same instance is re-used for all the entries, the entry name is
+     * read in place and decoded only when {@link #getName()} is called.
+     */
+    public final class Entry {
+
+        /**
+         * The offset of the next central directory header.
+         */
+        private int next = cenOffset;
+
+        /**
+         * The index of the current entry.
+         */
+        private int index = -1;
+
+        /**
+         * The offset of the current entry name.
+         */
+        private int nameOffset;
+
+        /**
+         * The length of the current entry name.
+         */
+        private int nameLength;
+
+        /**
+         * The compression method of the current entry.
+         */
+        private int method;
+
+        /**
+         * The compressed size of the current entry.
+         */
+        private long csize;
+
+        /**
+         * The uncompressed size of the current entry.
+         */
+        private long size;
+
+        /**
+         * The offset of the local header of the current entry.
+         */
+        private long locOffset;
+
+        /**
+         * The name offset of the last entry passed to
+         * {@link #packageChanged()}, or {@code -1}.
+         */
+        private int lastPackageOffset = -1;
+
+        /**
+         * The package length of the last entry passed to
+         * {@link #packageChanged()}.
+         */
+        private int lastPackageLength;
+
+        /**
+         * Create a new cursor.
+         */
+        private Entry() {
+        }
+
+        /**
+         * Move to the next entry.
+         * @return {@code true} if there is a next entry, {@code false}
+         * otherwise
+         * @throws ZipException if the central directory is invalid
+         */
+        public boolean next() throws ZipException {
+            ensureOpen();
+            if (index + 1 >= JarReader.this.size) {
+                return false;
+            }
+            int cen = next;
+            if (cen + CEN_SIZE > buffer.limit()
+                    || buffer.getInt(cen) != CEN_SIG) {
+                throw new ZipException("invalid central directory in "
+                        + name);
+            }
+            index++;
+            method = buffer.getShort(cen + 10) & 0xffff;
+            csize = buffer.getInt(cen + 20) & 0xffffffffL;
+            size = buffer.getInt(cen + 24) & 0xffffffffL;
+            nameLength = buffer.getShort(cen + 28) & 0xffff;
+            int extraLength = buffer.getShort(cen + 30) & 0xffff;
+            int commentLength = buffer.getShort(cen + 32) & 0xffff;
+            locOffset = buffer.getInt(cen + 42) & 0xffffffffL;
+            nameOffset = cen + CEN_SIZE;
+            next = nameOffset + nameLength + extraLength + commentLength;
+            if (csize == 0xffffffffL || size == 0xffffffffL
+                    || locOffset == 0xffffffffL) {
+                readZip64Extra(nameOffset + nameLength, extraLength);
+            }
+            return true;
+        }
+
+        /**
+         * Read the ZIP64 extended information of the current entry.
+         * @param offset the offset of the extra field
+         * @param length the length of the extra field
+         */
+        private void readZip64Extra(final int offset, final int length) {
+            int pos = offset;
+            int end = offset + length;
+            while (pos + 4 <= end) {
+                int tag = buffer.getShort(pos) & 0xffff;
+                int len = buffer.getShort(pos + 2) & 0xffff;
+                pos += 4;
+                if (tag == 1) {
+                    int p = pos;
+                    if (size == 0xffffffffL && p + 8 <= pos + len) {
+                        size = buffer.getLong(p);
+                        p += 8;
+                    }
+                    if (csize == 0xffffffffL && p + 8 <= pos + len) {
+                        csize = buffer.getLong(p);
+                        p += 8;
+                    }
+                    if (locOffset == 0xffffffffL && p + 8 <= pos + len) {
+                        locOffset = buffer.getLong(p);
+                    }
+                    return;
+                }
+                pos += len;
+            }
+        }
+
+        /**
+         * Check that the reader is not closed before reading the entry
+         * name.
+         * @throws IllegalStateException if the reader is closed
+         */
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException(name + " is closed");
+            }
+        }
+
+        /**
+         * Get the length of the entry name in bytes.
+         * @return the name length
+         */
+        public int nameLength() {
+            return nameLength;
+        }
+
+        /**
+         * Get a byte of the entry name.
+         * @param i the index of the byte
+         * @return the byte value
+         * @throws IllegalStateException if the reader is closed
+         */
+        public byte nameByteAt(final int i) {
+            checkOpen();
+            return buffer.get(nameOffset + i);
+        }
+
+        /**
+         * Test if the entry name ends with the given ASCII suffix.
+         * @param suffix the suffix to test
+         * @return {@code true} if the name ends with the suffix
+         * @throws IllegalStateException if the reader is closed
+         */
+        public boolean nameEndsWith(final String suffix) {
+            checkOpen();
+            int len = suffix.length();
+            if (len > nameLength) {
+                return false;
+            }
+            int offset = nameOffset + nameLength - len;
+            for (int i = 0; i < len; i++) {
+                if (buffer.get(offset + i) != suffix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Test if the entry name is equal to the given ASCII string,
+         * ignoring case.
+         * @param str the string to compare
+         * @return {@code true} if the name is equal
+         * @throws IllegalStateException if the reader is closed
+         */
+        public boolean nameEqualsIgnoreCase(final String str) {
+            checkOpen();
+            if (str.length() != nameLength) {
+                return false;
+            }
+            for (int i = 0; i < nameLength; i++) {
+                char c = (char) buffer.get(nameOffset + i);
+                if (Character.toUpperCase(c)
+                        != Character.toUpperCase(str.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Get the length of the package part of a class entry name.
+         * @return the length of the name up to the last {@code /}, or up to
+         * the {@code .class} suffix for classes in the default package
+         */
+        private int packageLength() {
+            for (int i = nameLength - 1; i >= 0; i--) {
+                if (buffer.get(nameOffset + i) == '/') {
+                    return i;
+                }
+            }
+            return Math.max(0, nameLength - CLASS_SUFFIX_LENGTH);
+        }
+
+        /**
+         * Test if the package of this class entry differs from the package
+         * of the previous entry passed to this method. The classes of a
+         * package are usually stored together, this avoids decoding the
+         * package name of every class.
+         * @return {@code true} if the package changed
+         * @throws IllegalStateException if the reader is closed
+         */
+        public boolean packageChanged() {
+            checkOpen();
+            int len = packageLength();
+            boolean changed = lastPackageOffset < 0 || len != lastPackageLength;
+            for (int i = 0; !changed && i < len; i++) {
+                changed = buffer.get(nameOffset + i)
+                        != buffer.get(lastPackageOffset + i);
+            }
+            lastPackageOffset = nameOffset;
+            lastPackageLength = len;
+            return changed;
+        }
+
+        /**
+         * Decode the package name of a class entry.
+         * @return the package name, or the class name for classes in the
+         * default package
+         * @throws IllegalStateException if the reader is closed
+         */
+        public String getPackageName() {
+            checkOpen();
+            byte[] bytes = new byte[packageLength()];
+            ByteBuffer view = buffer.duplicate();
+            ((Buffer) view).position(nameOffset);
+            view.get(bytes);
+            return new String(bytes, UTF8).replace('/', '.');
+        }
+
+        /**
+         * Test if the entry is a directory.
+         * @return {@code true} if the entry is a directory
+         * @throws IllegalStateException if the reader is closed
+         */
+        public boolean isDirectory() {
+            return nameLength > 0 && nameByteAt(nameLength - 1) == '/';
+        }
+
+        /**
+         * Decode the entry name.
+         * @return the entry name
+         * @throws IllegalStateException if the reader is closed
+         */
+        public String getName() {
+            checkOpen();
+            byte[] bytes = new byte[nameLength];
+            ByteBuffer view = buffer.duplicate();
+            ((Buffer) view).position(nameOffset);
+            view.get(bytes);
+            return new String(bytes, UTF8);
+        }
+
+        /**
+         * Get the uncompressed size of the entry.
+         * @return the size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Get the compressed size of the entry.
+         * @return the size in bytes
+         */
+        public long getCompressedSize() {
+            return csize;
+        }
+    }
+
+    /**
+     * A ZIP file stored as an entry of another ZIP file.
+     */
+    public static final class Nested {
+
+        /**
+         * The name of the nested file.
+         */
+        private final String name;
+
+        /**
+         * The entry data.
+         */
+        private final ByteBuffer data;
+
+        /**
+         * {@code true} if the entry data is deflated.
+         */
+        private final boolean deflated;
+
+        /**
+         * The uncompressed size.
+         */
+        private final long size;
+
+        /**
+         * Create a new {@link Nested} instance.
+         * @param nestedName the name of the nested file
+         * @param entryData the entry data
+         * @param compressed {@code true} if the entry data is deflated
+         * @param uncompressedSize the uncompressed size
+         */
+        private Nested(final String nestedName, final ByteBuffer entryData,
+                final boolean compressed, final long uncompressedSize) {
+
+            this.name = nestedName;
+            this.data = entryData;
+            this.deflated = compressed;
+            this.size = uncompressedSize;
+        }
+
+        /**
+         * Get the name of the nested file.
+         * @return the name of the outer file followed by {@code !/} and the
+         * entry name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the size of the nested file.
+         * @return the uncompressed size
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Open the nested file.
+         * Stored entries are read in place, deflated entries are inflated in
+         * memory.
+         * @return the created {@link JarReader} instance
+         * @throws IOException if the nested file is not a valid ZIP file
+         */
+        public JarReader open() throws IOException {
+            ByteBuffer content = data.duplicate();
+            if (deflated) {
+                content = ByteBuffer.wrap(inflate(content, size, name));
+            }
+            return new JarReader(name, content);
+        }
+    }
+
+    /**
+     * Read the content of a buffer, the buffer must not be used after the
+     * reader is closed.
+     */
+    private final class BufferInputStream extends InputStream {
+
+        /**
+         * The data to read.
+         */
+        private final ByteBuffer data;
+
+        /**
+         * {@code true} if an extra dummy byte is returned at the end of the
+         * data, as required by the nowrap mode of {@link Inflater}.
+         */
+        private boolean padding;
+
+        /**
+         * Create a new {@link BufferInputStream} instance.
+         * @param content the data to read
+         * @param pad {@code true} to return an extra dummy byte at the end
+         */
+        BufferInputStream(final ByteBuffer content, final boolean pad) {
+            this.data = content;
+            this.padding = pad;
+        }
+
+        @Override
+        public int read() throws IOException {
+            ensureOpen();
+            if (data.hasRemaining()) {
+                return data.get() & 0xff;
+            }
+            if (padding) {
+                padding = false;
+                return 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+                throws IOException {
+
+            ensureOpen();
+            if (len == 0) {
+                return 0;
+            }
+            if (!data.hasRemaining()) {
+                return padding ? read() : -1;
+            }
+            int n = Math.min(len, data.remaining());
+            data.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return data.remaining() + (padding ? 1 : 0);
+        }
+    }
+
+    /**
+     * The content of a deflated entry, inflated as it is read.
+     */
+    public static final class EntryInputStream extends InflaterInputStream {
+
+        /**
+         * The size of the compressed data chunks.
+         */
+        private static final int CHUNK_SIZE = 1024;
+
+        /**
+         * {@code true} if this stream is closed.
+         */
+        private boolean closed;
+
+        /**
+         * The number of bytes inflated when this stream was closed.
+         */
+        private long inflated;
+
+        /**
+         * Create a new {@link EntryInputStream} instance.
+         * @param in the deflated data
+         */
+        private EntryInputStream(final InputStream in) {
+            super(in, new Inflater(true), CHUNK_SIZE);
+        }
+
+        /**
+         * Get the number of bytes inflated so far.
+         * @return the number of uncompressed bytes
+         */
+        public long getBytesInflated() {
+            return closed ? inflated : inf.getBytesWritten();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            inflated = inf.getBytesWritten();
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
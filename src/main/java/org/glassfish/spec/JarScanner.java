@@ -0,0 +1,473 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Single pass JAR file scanner.
+ * Each entry of the JAR file is visited once, the {@code pom.properties},
+ * the {@code MANIFEST.MF} and the package names of the classes are passed to
+ * the registered {@link Consumer} instances. The class entries are grouped
+ * by package as they appear in the central directory.
+ *
+ * @author Romain Grecourt
+ */
+public final class JarScanner {
+
+    /**
+     * The name of the manifest entry.
+     */
+    public static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+    /**
+     * The suffix of the {@code pom.properties} entries.
+     */
+    private static final String POM_PROPERTIES = "pom.properties";
+
+    /**
+     * The suffix of the class entries.
+     */
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * Cannot be instantiated.
+     */
+    private JarScanner() {
+    }
+
+    /**
+     * Receives the content found while scanning a JAR file.
+     */
+    public abstract static class Consumer {
+
+        /**
+         * Called for the first {@code pom.properties} entry.
+         * @param props the loaded properties
+         */
+        public void pomProperties(final Properties props) {
+        }
+
+        /**
+         * Called for the {@code MANIFEST.MF} entry.
+         * @param metadata the metadata read from the main section of the
+         * manifest
+         */
+        public void metadata(final Metadata metadata) {
+        }
+
+        /**
+         * Called for each run of consecutive class entries in the same
+         * package, at least once per package.
+         * @param pkg the package name of the classes, or the class name for
+         * classes in the default package
+         * @param classes the number of classes in the run
+         */
+        public void classPackage(final String pkg, final int classes) {
+        }
+    }
+
+    /**
+     * Collects the artifact, the metadata and the package index of a scanned
+     * JAR file.
+     */
+    public static final class Contents extends Consumer {
+
+        /**
+         * The name of the JAR file.
+         */
+        private final String jarName;
+
+        /**
+         * The {@code pom.properties} content.
+         */
+        private Properties pomProperties;
+
+        /**
+         * The metadata read from the manifest.
+         */
+        private Metadata metadata;
+
+        /**
+         * The package index.
+         */
+        private final PackageIndex packages = new PackageIndex();
+
+        /**
+         * Create a new {@link Contents} instance.
+         * @param name the name of the JAR file
+         */
+        public Contents(final String name) {
+            this.jarName = name;
+        }
+
+        @Override
+        public void pomProperties(final Properties props) {
+            this.pomProperties = props;
+        }
+
+        @Override
+        public void metadata(final Metadata mdata) {
+            this.metadata = mdata;
+        }
+
+        @Override
+        public void classPackage(final String pkg, final int classes) {
+            packages.add(pkg, classes);
+        }
+
+        /**
+         * Get the artifact described by the {@code pom.properties} entry.
+         * @return the artifact
+         */
+        public Artifact getArtifact() {
+            if (pomProperties == null) {
+                throw new RuntimeException(
+                        "unable to find pom.properties "
+                        + "files inside " + jarName);
+            }
+            return Artifact.fromPomProperties(pomProperties);
+        }
+
+        /**
+         * Get the metadata described by the manifest.
+         * @return the metadata
+         */
+        public Metadata getMetadata() {
+            return metadata != null
+                    ? metadata : Metadata.fromManifest(new Manifest());
+        }
+
+        /**
+         * Get the distinct package names of the classes.
+         * @return the package names, in the order of the JAR entries
+         */
+        public Set<String> getPackages() {
+            return packages.getPackages();
+        }
+
+        /**
+         * Get the package index of the classes.
+         * @return the package index
+         */
+        public PackageIndex getPackageIndex() {
+            return packages;
+        }
+    }
+
+    /**
+     * Scan the given JAR file and collect its contents.
+     * @param jar the JAR file to scan
+     * @return the collected contents
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    public static Contents scan(final JarFile jar) throws IOException {
+        Contents contents = new Contents(jar.getName());
+        scan(jar, contents);
+        return contents;
+    }
+
+    /**
+     * Scan the given JAR file and collect its contents.
+     * Only the central directory, the manifest and the
+     * {@code pom.properties} entries are read.
+     * @param file the JAR file to scan
+     * @return the collected contents
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    public static Contents scan(final File file) throws IOException {
+        return scan(file, Metrics.DISABLED);
+    }
+
+    /**
+     * Scan the given JAR file and collect its contents.
+     * Only the central directory, the manifest and the
+     * {@code pom.properties} entries are read.
+     * @param file the JAR file to scan
+     * @param metrics the metrics to record
+     * @return the collected contents
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    public static Contents scan(final File file, final Metrics metrics)
+            throws IOException {
+
+        Contents contents = new Contents(file.getPath());
+        long start = metrics.start();
+        Object event = metrics.begin(Tracer.JAR_OPENED);
+        JarReader jar = JarReader.open(file);
+        try {
+            opened(jar, file, metrics, start, event);
+            scan(jar, metrics, contents);
+        } finally {
+            jar.close();
+        }
+        return contents;
+    }
+
+    /**
+     * Scan the given JAR file opened from a pool and collect its contents.
+     * The file is closed before this method returns, unless it is used
+     * concurrently by other threads.
+     * @param file the JAR file to scan
+     * @param pool the pool used to open the file
+     * @param metrics the metrics to record
+     * @return the collected contents
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    public static Contents scan(final File file, final JarPool pool,
+            final Metrics metrics) throws IOException {
+
+        Contents contents = new Contents(file.getPath());
+        long start = metrics.start();
+        Object event = metrics.begin(Tracer.JAR_OPENED);
+        JarPool.Handle handle = pool.acquire(file);
+        try {
+            opened(handle.getReader(), file, metrics, start, event);
+            scan(handle.getReader(), metrics, contents);
+        } finally {
+            handle.close();
+        }
+        return contents;
+    }
+
+    /**
+     * Record the opening of a JAR file.
+     * @param jar the opened JAR file
+     * @param file the file
+     * @param metrics the metrics to record
+     * @param start the start time
+     * @param event the tracer event
+     */
+    private static void opened(final JarReader jar, final File file,
+            final Metrics metrics, final long start, final Object event) {
+
+        metrics.stop(Metrics.JAR_OPEN, start);
+        metrics.end(event, file.getPath(), null, jar.size(), file.length());
+        metrics.count(Metrics.BYTES, file.length());
+    }
+
+    /**
+     * Scan the given JAR file.
+     * @param jar the JAR file to scan
+     * @param consumers the consumers to notify
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    public static void scan(final JarFile jar, final Consumer... consumers)
+            throws IOException {
+
+        boolean pomFound = false;
+        String pkg = null;
+        int run = 0;
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (entry.isDirectory()) {
+                continue;
+            }
+            String name = entry.getName();
+            if (name.endsWith(CLASS_SUFFIX)) {
+                String classPkg = packageName(name);
+                if (!classPkg.equals(pkg)) {
+                    classPackage(pkg, run, consumers);
+                    pkg = classPkg;
+                    run = 0;
+                }
+                run++;
+            } else if (!pomFound && name.endsWith(POM_PROPERTIES)) {
+                pomFound = true;
+                pomProperties(jar.getInputStream(entry), consumers);
+            } else if (name.equalsIgnoreCase(MANIFEST)) {
+                manifest(jar.getInputStream(entry), consumers);
+            }
+        }
+        classPackage(pkg, run, consumers);
+    }
+
+    /**
+     * Scan the given JAR file.
+     * @param jar the JAR file to scan
+     * @param consumers the consumers to notify
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    public static void scan(final JarReader jar, final Consumer... consumers)
+            throws IOException {
+
+        scan(jar, Metrics.DISABLED, consumers);
+    }
+
+    /**
+     * Scan the given JAR file.
+     * @param jar the JAR file to scan
+     * @param metrics the metrics to record
+     * @param consumers the consumers to notify
+     * @throws IOException if an error occurs while reading the JAR file
+     */
+    public static void scan(final JarReader jar, final Metrics metrics,
+            final Consumer... consumers) throws IOException {
+
+        long scanStart = metrics.start();
+        Object scanEvent = metrics.begin(Tracer.CLASSES_CHECKED);
+        boolean pomFound = false;
+        int classes = 0;
+        String pkg = null;
+        int run = 0;
+        JarReader.Entry entry = jar.entries();
+        while (entry.next()) {
+            if (entry.isDirectory()) {
+                continue;
+            }
+            if (entry.nameEndsWith(CLASS_SUFFIX)) {
+                classes++;
+                if (entry.packageChanged()) {
+                    classPackage(pkg, run, consumers);
+                    pkg = entry.getPackageName();
+                    run = 0;
+                }
+                run++;
+            } else if (!pomFound && entry.nameEndsWith(POM_PROPERTIES)) {
+                pomFound = true;
+                long start = metrics.start();
+                Object event = metrics.begin(Tracer.POM_PROPERTIES_LOCATED);
+                pomProperties(jar.getInputStream(entry), consumers);
+                metrics.stop(Metrics.POM_PROPERTIES, start);
+                metrics.end(event, jar.getName(), entry.getName(), 1,
+                        entry.getSize());
+            } else if (entry.nameEqualsIgnoreCase(MANIFEST)) {
+                long start = metrics.start();
+                Object event = metrics.begin(Tracer.MANIFEST_PARSED);
+                manifest(jar.getInputStream(entry), consumers);
+                metrics.stop(Metrics.MANIFEST, start);
+                metrics.end(event, jar.getName(), MANIFEST, 1,
+                        entry.getSize());
+            }
+        }
+        classPackage(pkg, run, consumers);
+        metrics.stop(Metrics.JAR_SCAN, scanStart);
+        metrics.end(scanEvent, jar.getName(), null, classes, 0);
+        metrics.count(Metrics.ENTRIES, jar.size());
+        metrics.count(Metrics.CLASSES, classes);
+    }
+
+    /**
+     * Notify the consumers of a run of classes in the same package.
+     * @param pkg the package name, or {@code null} before the first run
+     * @param classes the number of classes in the run
+     * @param consumers the consumers to notify
+     */
+    private static void classPackage(final String pkg, final int classes,
+            final Consumer... consumers) {
+
+        if (pkg == null) {
+            return;
+        }
+        for (Consumer consumer : consumers) {
+            consumer.classPackage(pkg, classes);
+        }
+    }
+
+    /**
+     * Load {@code pom.properties} and notify the consumers.
+     * @param is the entry content, closed by this method
+     * @param consumers the consumers to notify
+     * @throws IOException if an error occurs while reading the entry
+     */
+    private static void pomProperties(final InputStream is,
+            final Consumer... consumers) throws IOException {
+
+        Properties props = new Properties();
+        try {
+            props.load(is);
+        } finally {
+            is.close();
+        }
+        for (Consumer consumer : consumers) {
+            consumer.pomProperties(props);
+        }
+    }
+
+    /**
+     * Read the metadata from the manifest and notify the consumers.
+     * Only the main section of the manifest is read.
+     * @param is the entry content, closed by this method
+     * @param consumers the consumers to notify
+     * @throws IOException if an error occurs while reading the entry
+     */
+    private static void manifest(final InputStream is,
+            final Consumer... consumers) throws IOException {
+
+        Metadata metadata;
+        try {
+            metadata = Metadata.fromManifest(is);
+        } finally {
+            is.close();
+        }
+        for (Consumer consumer : consumers) {
+            consumer.metadata(metadata);
+        }
+    }
+
+    /**
+     * Get the package name of a class entry.
+     * @param entryName the class entry name
+     * @return the package name, or the class name for classes in the default
+     * package
+     */
+    static String packageName(final String entryName) {
+        // remove ".class"
+        String name = entryName.substring(0,
+                entryName.length() - CLASS_SUFFIX.length());
+        name = name.replace('/', '.');
+        int i = name.lastIndexOf('.');
+        if (i > 0) {
+            // remove class name
+            name = name.substring(0, i);
+        }
+        return name;
+    }
+}
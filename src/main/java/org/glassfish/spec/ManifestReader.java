@@ -0,0 +1,275 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Read a projection of the main section of a {@code MANIFEST.MF} entry.
+ * Only the requested attributes are decoded, the other attributes are
+ * skipped and the reading stops at the end of the main section, i.e. the
+ * first blank line, or as soon as all the requested attributes are found.
+ * The per-entry sections, which are large in signed JAR files, are never
+ * read.
+ *
+ * @author Romain Grecourt
+ */
+@SuppressWarnings("checkstyle:MagicNumber")
+public final class ManifestReader {
+
+    /**
+     * The size of the read buffer.
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * The initial size of the line buffer, manifest lines are at most 72
+     * bytes long.
+     */
+    private static final int LINE_SIZE = 128;
+
+    /**
+     * The stream to read.
+     */
+    private final InputStream in;
+
+    /**
+     * The read buffer.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * The position of the next byte in the read buffer.
+     */
+    private int pos;
+
+    /**
+     * The number of bytes in the read buffer.
+     */
+    private int limit;
+
+    /**
+     * The current line, without the line terminator.
+     */
+    private byte[] line = new byte[LINE_SIZE];
+
+    /**
+     * The length of the current line.
+     */
+    private int length;
+
+    /**
+     * Create a new {@link ManifestReader} instance.
+     * @param is the stream to read
+     */
+    private ManifestReader(final InputStream is) {
+        this.in = is;
+    }
+
+    /**
+     * Read the requested attributes of the main section of a manifest.
+     * The attribute names are case insensitive.
+     * @param is the manifest content, not closed by this method
+     * @param names the names of the attributes to read
+     * @return the attribute values, in the order of the names, {@code null}
+     * for the missing attributes
+     * @throws IOException if an error occurs while reading the stream
+     */
+    public static String[] read(final InputStream is, final String... names)
+            throws IOException {
+
+        return new ManifestReader(is).readMainSection(names);
+    }
+
+    /**
+     * Read the requested attributes of the main section.
+     * @param names the names of the attributes to read
+     * @return the attribute values
+     * @throws IOException if an error occurs while reading the stream
+     */
+    private String[] readMainSection(final String[] names)
+            throws IOException {
+
+        String[] values = new String[names.length];
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        int found = 0;
+        int current = -1;
+        while (readLine() && length > 0) {
+            if (line[0] == ' ') {
+                // continuation line
+                if (current >= 0) {
+                    value.write(line, 1, length - 1);
+                }
+                continue;
+            }
+            if (current >= 0) {
+                values[current] = value.toString("UTF-8");
+                found++;
+                current = -1;
+            }
+            if (found == names.length) {
+                break;
+            }
+            int colon = indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            current = lookup(names, values, colon);
+            if (current >= 0) {
+                int start = colon + 1;
+                if (start < length && line[start] == ' ') {
+                    start++;
+                }
+                value.reset();
+                value.write(line, start, length - start);
+            }
+        }
+        if (current >= 0) {
+            values[current] = value.toString("UTF-8");
+        }
+        return values;
+    }
+
+    /**
+     * Find a requested attribute that is not yet read.
+     * @param names the names of the requested attributes
+     * @param values the values read so far
+     * @param nameLength the length of the attribute name of the current
+     * line
+     * @return the index of the attribute, or {@code -1}
+     */
+    private int lookup(final String[] names, final String[] values,
+            final int nameLength) {
+
+        for (int i = 0; i < names.length; i++) {
+            if (values[i] == null && nameEquals(names[i], nameLength)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare the attribute name of the current line, ignoring case.
+     * @param name the name to compare with
+     * @param nameLength the length of the attribute name of the current
+     * line
+     * @return {@code true} if the names are equal
+     */
+    private boolean nameEquals(final String name, final int nameLength) {
+        if (name.length() != nameLength) {
+            return false;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            char c = (char) (line[i] & 0xff);
+            if (Character.toLowerCase(c)
+                    != Character.toLowerCase(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find a byte in the current line.
+     * @param b the byte to find
+     * @return the index of the byte, or {@code -1}
+     */
+    private int indexOf(final char b) {
+        for (int i = 0; i < length; i++) {
+            if (line[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read the next byte.
+     * @return the byte, or {@code -1} at the end of the stream
+     * @throws IOException if an error occurs while reading the stream
+     */
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[pos++] & 0xff;
+    }
+
+    /**
+     * Read the next line, the line terminator is {@code CR LF},
+     * {@code LF} or {@code CR}.
+     * @return {@code false} at the end of the stream
+     * @throws IOException if an error occurs while reading the stream
+     */
+    private boolean readLine() throws IOException {
+        length = 0;
+        int b = read();
+        if (b < 0) {
+            return false;
+        }
+        while (b >= 0 && b != '\n' && b != '\r') {
+            if (length == line.length) {
+                byte[] larger = new byte[line.length * 2];
+                System.arraycopy(line, 0, larger, 0, length);
+                line = larger;
+            }
+            line[length++] = (byte) b;
+            b = read();
+        }
+        if (b == '\r') {
+            if (pos == limit && read() >= 0) {
+                pos--;
+            }
+            if (pos < limit && buffer[pos] == '\n') {
+                pos++;
+            }
+        }
+        return true;
+    }
+}
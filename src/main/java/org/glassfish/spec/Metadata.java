@@ -44,7 +44,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -63,37 +62,37 @@ public final class Metadata {
     /**
      * Bundle Symbolic Name.
      */
-    private String bundleSymbolicName;
+    private final String bundleSymbolicName;
 
     /**
      * Bundle Spec Version.
      */
-    private String bundleSpecVersion;
+    private final String bundleSpecVersion;
 
     /**
      * Bundle Version.
      */
-    private String bundleVersion;
+    private final String bundleVersion;
 
     /**
      * Jar Extension Name.
      */
-    private String jarExtensionName;
+    private final String jarExtensionName;
 
     /**
      * Jar Specification Version.
      */
-    private String jarSpecificationVersion;
+    private final String jarSpecificationVersion;
 
     /**
      * Jar Implementation Version.
      */
-    private String jarImplementationVersion;
+    private final String jarImplementationVersion;
 
     /**
-     * Properties.
+     * The exported packages mapped to their version.
      */
-    private Properties properties = null;
+    private final Map<String, String> exportedPackages;
 
     /**
      * Entry name for Bundle Symbolic Name.
@@ -127,17 +126,23 @@ public final class Metadata {
     public static final String JAR_IMPLEMENTATION_VERSION =
             "Implementation-Version";
 
+    /**
+     * Entry name for the OSGi exported packages.
+     */
+    public static final String EXPORT_PACKAGE = "Export-Package";
+
     /**
      * List of collected errors.
      */
     private final List<String> errors;
 
     /**
-     * All the metadata entry names.
+     * The manifest entries to read, the bundle spec version is resolved from
+     * the exported packages.
      */
     private static final String[] KEYS = {
         BUNDLE_SYMBOLIC_NAME,
-        BUNDLE_SPEC_VERSION,
+        EXPORT_PACKAGE,
         BUNDLE_VERSION,
         JAR_EXTENSION_NAME,
         JAR_SPECIFICATION_VERSION,
@@ -152,11 +157,13 @@ public final class Metadata {
      * @param jen jar extension name
      * @param jsv jar spec version
      * @param jiv jar implementation version
+     * @param exports exported packages mapped to their version
      * @param errs errors
      */
+    @SuppressWarnings("checkstyle:ParameterNumber")
     Metadata(final String bsn, final String bsv, final String bv,
             final String jen, final String jsv, final String jiv,
-            final List<String> errs) {
+            final Map<String, String> exports, final List<String> errs) {
 
         this.bundleSymbolicName =
                 bsn != null ? bsn : "";
@@ -171,15 +178,11 @@ public final class Metadata {
         this.jarImplementationVersion =
                 jiv != null ? jiv : "";
 
+        Objects.requireNonNull(exports, "exports is null");
+        this.exportedPackages = exports;
         Objects.requireNonNull(errs, "errors in null");
-        this.errors = errs;
-        this.properties = new Properties();
-        properties.put("spec.bundle.symbolic-name", bundleSymbolicName);
-        properties.put("spec.bundle.spec.version", bundleSpecVersion);
-        properties.put("spec.bundle.version", bundleVersion);
-        properties.put("spec.extension.name", jarExtensionName);
-        properties.put("spec.specification.version", jarSpecificationVersion);
-        properties.put("spec.implementation.version", jarImplementationVersion);
+        this.errors = Collections.unmodifiableList(
+                new ArrayList<String>(errs));
     }
 
     /**
@@ -190,62 +193,29 @@ public final class Metadata {
      * @param jen jar extension name
      * @param jsv jar spec version
      * @param jiv jar implementation version
+     * @param errs errors
      */
     Metadata(final String bsn, final String bsv, final String bv,
-            final String jen, final String jsv, final String jiv) {
+            final String jen, final String jsv, final String jiv,
+            final List<String> errs) {
 
-        this(bsn, bsv, bv, jen, jsv, jiv, new LinkedList<String>());
+        this(bsn, bsv, bv, jen, jsv, jiv,
+                Collections.<String, String>emptyMap(), errs);
     }
 
     /**
-     * Derive the Bundle Spec Version from OSGi headers.
-     * @param headers the headers to process
-     * @return the bundle spec version if found, otherwise an empty string.
-     */
-    @SuppressWarnings("checkstyle:LineLength")
-    private static String getBundleSpecVersion(final String headers) {
-
-        // TODO extract exported package version
-        // to use with the fromJar approach
-        Map<String, List<String>> res = new HashMap<String, List<String>>();
-
-        String[] headersTokens = headers.split(";");
-        if (headersTokens.length > 1) {
-            ArrayList<String> curHeader = new ArrayList<String>();
-            String key = "";
-            for (int i = 0; i < headersTokens.length; i++) {
-                if (!(headersTokens[i].startsWith("uses:=")
-                        || headersTokens[i].startsWith("version="))) {
-                    key = headersTokens[i];
-                } else {
-                    if (headersTokens[i].startsWith("version=")) {
-                        String[] lastToken = headersTokens[i].split(",");
-                        curHeader.add(lastToken[0]);
-                        res.put(key, new ArrayList<String>(curHeader));
-                        if (headersTokens[i].length() > lastToken[0].length()) {
-                            key = headersTokens[i].substring(lastToken[0].length() + 1);
-                            curHeader.clear();
-                        }
-                    } else if (headersTokens[i].startsWith("uses:=")) {
-                        if (i != headersTokens.length - 1
-                                && !headersTokens[i + 1].startsWith("version=")) {
-                            String[] lastToken = headersTokens[i].split(",");
-                            curHeader.add(headersTokens[i].substring(0,
-                                    headersTokens[i].length()
-                                            - (lastToken[lastToken.length - 1].length())));
-                            res.put(key, new ArrayList<String>(curHeader));
-                            key = lastToken[lastToken.length - 1];
-                            curHeader.clear();
-                        } else {
-                            curHeader.add(headersTokens[i]);
-                        }
-                    }
-                }
-            }
-        } else {
-            res.put(headers, Collections.EMPTY_LIST);
-        }
-        return "";
+     * Create a new {@link Metadata} instance.
+     * @param bsn bundle symbolic name
+     * @param bsv bundle spec version
+     * @param bv bundle version
+     * @param jen jar extension name
+     * @param jsv jar spec version
+     * @param jiv jar implementation version
+     */
+    Metadata(final String bsn, final String bsv, final String bv,
+            final String jen, final String jsv, final String jiv) {
+
+        this(bsn, bsv, bv, jen, jsv, jiv, new LinkedList<String>());
     }
 
     /**
@@ -254,20 +224,58 @@ public final class Metadata {
      * @return the created {@link Metadata} instance
      * @throws IOException if an error occurs while reading JAR entries
      */
-    @SuppressWarnings("checkstyle:MagicNumber")
     public static Metadata fromJar(final JarFile jar) throws IOException {
-        ZipEntry e = jar.getEntry("META-INF/MANIFEST.MF");
+        ZipEntry e = jar.getEntry(JarScanner.MANIFEST);
         InputStream is = jar.getInputStream(e);
-        Manifest manifest = new Manifest(is);
+        try {
+            return fromManifest(is);
+        } finally {
+            is.close();
+        }
+    }
 
-        List<String> errors = new LinkedList<String>();
+    /**
+     * Create a new {@link Metadata} instance from the content of a manifest.
+     * Only the needed entries of the main section are read, see
+     * {@link ManifestReader}.
+     * @param is the manifest content, not closed by this method
+     * @return the created {@link Metadata} instance
+     * @throws IOException if an error occurs while reading the manifest
+     */
+    public static Metadata fromManifest(final InputStream is)
+            throws IOException {
+
+        return create(ManifestReader.read(is, KEYS));
+    }
+
+    /**
+     * Create a new {@link Metadata} instance from a manifest.
+     * @param manifest the manifest to process
+     * @return the created {@link Metadata} instance
+     */
+    public static Metadata fromManifest(final Manifest manifest) {
         String[] mdata = new String[KEYS.length];
         for (int i = 0; i < KEYS.length; i++) {
-            if (KEYS[i].equals(BUNDLE_SPEC_VERSION)) {
-                // skip bundleSpecVersion
+            mdata[i] = manifest.getMainAttributes().getValue(KEYS[i]);
+        }
+        return create(mdata);
+    }
+
+    /**
+     * Create a new {@link Metadata} instance from the manifest entries.
+     * The bundle spec version is the version of the exported package named
+     * after the extension name.
+     * @param mdata the values of the entries in {@link #KEYS}
+     * @return the created {@link Metadata} instance
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static Metadata create(final String[] mdata) {
+        List<String> errors = new LinkedList<String>();
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(EXPORT_PACKAGE)) {
+                // optional
                 continue;
             }
-            mdata[i] = manifest.getMainAttributes().getValue(KEYS[i]);
             if (mdata[i] == null) {
                 errors.add(new StringBuilder()
                         .append("ERROR: ")
@@ -277,9 +285,15 @@ public final class Metadata {
             }
         }
 
-        // TODO parse exported-packages to resolve bundleSpecVersion
-        return new Metadata(mdata[0], mdata[1], mdata[2], mdata[3], mdata[4],
-                mdata[5], errors);
+        Map<String, String> exports = Collections.emptyMap();
+        try {
+            exports = ExportPackageParser.parse(mdata[1]);
+        } catch (IllegalArgumentException ex) {
+            errors.add("ERROR: " + ex.getMessage());
+        }
+        String bsv = mdata[3] != null ? exports.get(mdata[3]) : null;
+        return new Metadata(mdata[0], bsv, mdata[2], mdata[3], mdata[4],
+                mdata[5], exports, errors);
     }
 
     /**
@@ -333,16 +347,32 @@ public final class Metadata {
     }
 
     /**
-     * Get the metadata properties.
-     * @return metadata properties
+     * Get the OSGi exported packages.
+     * @return the unmodifiable map of the exported packages to their
+     * version, empty if the manifest has no {@code Export-Package} entry
+     */
+    public Map<String, String> getExportedPackages() {
+        return exportedPackages;
+    }
+
+    /**
+     * Get the metadata properties, created on each invocation.
+     * @return the metadata properties
      */
     public Properties getProperties() {
-        return properties;
+        Properties props = new Properties();
+        props.put("spec.bundle.symbolic-name", bundleSymbolicName);
+        props.put("spec.bundle.spec.version", bundleSpecVersion);
+        props.put("spec.bundle.version", bundleVersion);
+        props.put("spec.extension.name", jarExtensionName);
+        props.put("spec.specification.version", jarSpecificationVersion);
+        props.put("spec.implementation.version", jarImplementationVersion);
+        return props;
     }
 
     /**
      * Get the metadata errors.
-     * @return the list of errors
+     * @return the unmodifiable list of errors
      */
     public List<String> getErrors() {
         return errors;
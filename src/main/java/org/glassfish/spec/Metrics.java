@@ -0,0 +1,587 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timers and counters collected while verifying spec artifacts.
+ * Events are also forwarded to an optional {@link Tracer}.
+ * Instances are thread safe, the {@link #DISABLED} instance does not record
+ * anything.
+ *
+ * @author Romain Grecourt
+ */
+public final class Metrics {
+
+    /**
+     * Time spent listing the files to verify.
+     */
+    public static final String GLOB = "glob";
+
+    /**
+     * Time spent opening JAR files.
+     */
+    public static final String JAR_OPEN = "jar.open";
+
+    /**
+     * Time spent scanning JAR entries, including the manifest and
+     * {@code pom.properties} parsing.
+     */
+    public static final String JAR_SCAN = "jar.scan";
+
+    /**
+     * Time spent parsing manifests.
+     */
+    public static final String MANIFEST = "jar.manifest";
+
+    /**
+     * Time spent loading {@code pom.properties} files.
+     */
+    public static final String POM_PROPERTIES = "jar.pom";
+
+    /**
+     * Time spent in {@link Spec#verify(Metrics)}.
+     */
+    public static final String VERIFY = "spec.verify";
+
+    /**
+     * Prefix of the per rule timers.
+     */
+    public static final String RULE_PREFIX = "rule.";
+
+    /**
+     * Time spent writing reports.
+     */
+    public static final String REPORT = "report";
+
+    /**
+     * Total time spent per JAR file.
+     */
+    public static final String JAR = "jar";
+
+    /**
+     * Number of JAR entries visited.
+     */
+    public static final String ENTRIES = "entries";
+
+    /**
+     * Number of class entries visited.
+     */
+    public static final String CLASSES = "classes";
+
+    /**
+     * Number of bytes of the scanned JAR files.
+     */
+    public static final String BYTES = "bytes";
+
+    /**
+     * Number of cache hits.
+     */
+    public static final String CACHE_HITS = "cache.hits";
+
+    /**
+     * Number of cache misses.
+     */
+    public static final String CACHE_MISSES = "cache.misses";
+
+    /**
+     * A disabled instance.
+     */
+    public static final Metrics DISABLED = new Metrics(false, null);
+
+    /**
+     * The class name of the Java Flight Recorder tracer.
+     */
+    private static final String JFR_TRACER = "org.glassfish.spec.jfr.JfrTracer";
+
+    /**
+     * Number of slowest JAR files retained.
+     */
+    private static final int SLOWEST_JARS = 10;
+
+    /**
+     * {@code true} if recording.
+     */
+    private final boolean enabled;
+
+    /**
+     * The tracer, may be {@code null}.
+     */
+    private final Tracer tracer;
+
+    /**
+     * The timers.
+     */
+    private final ConcurrentMap<String, Timer> timers =
+            new ConcurrentHashMap<String, Timer>();
+
+    /**
+     * The counters.
+     */
+    private final ConcurrentMap<String, AtomicLong> counters =
+            new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * The slowest JAR files, the fastest first.
+     */
+    private final PriorityQueue<JarTime> slowest =
+            new PriorityQueue<JarTime>(SLOWEST_JARS + 1, new JarTimeOrder());
+
+    /**
+     * Create a new enabled {@link Metrics} instance.
+     */
+    public Metrics() {
+        this(true, null);
+    }
+
+    /**
+     * Create a new enabled {@link Metrics} instance.
+     * @param eventTracer the tracer to forward the events to, may be
+     * {@code null}
+     */
+    public Metrics(final Tracer eventTracer) {
+        this(true, eventTracer);
+    }
+
+    /**
+     * Create a new {@link Metrics} instance.
+     * @param record {@code true} to record
+     * @param eventTracer the tracer, may be {@code null}
+     */
+    private Metrics(final boolean record, final Tracer eventTracer) {
+        this.enabled = record;
+        this.tracer = eventTracer;
+    }
+
+    /**
+     * Create an instance that only forwards the events to a tracer, the
+     * timers and counters are not recorded.
+     * @param eventTracer the tracer, may be {@code null}
+     * @return a tracing instance, or {@link #DISABLED} if the tracer is
+     * {@code null}
+     */
+    public static Metrics tracing(final Tracer eventTracer) {
+        if (eventTracer == null) {
+            return DISABLED;
+        }
+        return new Metrics(false, eventTracer);
+    }
+
+    /**
+     * Load the Java Flight Recorder tracer.
+     * The tracer is only available if the plugin has been built and is
+     * running with a JDK that provides the {@code jdk.jfr} module.
+     * @return the tracer, or {@code null} if not available
+     */
+    public static Tracer jfrTracer() {
+        try {
+            return Class.forName(JFR_TRACER, true,
+                    Metrics.class.getClassLoader()).asSubclass(Tracer.class)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException ex) {
+            return null;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        } catch (InstantiationException ex) {
+            return null;
+        } catch (IllegalAccessException ex) {
+            return null;
+        } catch (InvocationTargetException ex) {
+            return null;
+        } catch (RuntimeException ex) {
+            return null;
+        } catch (LinkageError err) {
+            return null;
+        }
+    }
+
+    /**
+     * Test if this instance records.
+     * @return {@code true} if recording
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a timer.
+     * @return the start time to pass to {@link #stop(String, long)}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stop a timer and record the elapsed time.
+     * @param name the timer name
+     * @param start the value returned by {@link #start()}
+     * @return the elapsed time in nanoseconds
+     */
+    public long stop(final String name, final long start) {
+        if (!enabled) {
+            return 0L;
+        }
+        long elapsed = System.nanoTime() - start;
+        timer(name).add(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Begin a tracer event.
+     * @param type the event type, see {@link Tracer}
+     * @return the event handle, {@code null} if there is no tracer
+     */
+    public Object begin(final String type) {
+        return tracer != null ? tracer.begin(type) : null;
+    }
+
+    /**
+     * End a tracer event.
+     * @param handle the value returned by {@link #begin(String)}
+     * @param path the path of the JAR file, or the artifact for rules
+     * @param name the name of the entry or rule, may be {@code null}
+     * @param count the event count
+     * @param bytes the number of bytes read
+     */
+    public void end(final Object handle, final String path,
+            final String name, final long count, final long bytes) {
+
+        if (handle != null) {
+            tracer.end(handle, path, name, count, bytes);
+        }
+    }
+
+    /**
+     * Stop the timer of a JAR file and record the total time.
+     * @param path the path of the JAR file
+     * @param start the value returned by {@link #start()}
+     */
+    public void stopJar(final String path, final long start) {
+        if (!enabled) {
+            return;
+        }
+        long elapsed = stop(JAR, start);
+        synchronized (slowest) {
+            slowest.add(new JarTime(path, elapsed));
+            if (slowest.size() > SLOWEST_JARS) {
+                slowest.poll();
+            }
+        }
+    }
+
+    /**
+     * Increment a counter.
+     * @param name the counter name
+     * @param delta the value to add
+     */
+    public void count(final String name, final long delta) {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong counter = counters.get(name);
+        if (counter == null) {
+            AtomicLong created = new AtomicLong();
+            counter = counters.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.addAndGet(delta);
+    }
+
+    /**
+     * Get or create a timer.
+     * @param name the timer name
+     * @return the timer
+     */
+    private Timer timer(final String name) {
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            Timer created = new Timer();
+            timer = timers.putIfAbsent(name, created);
+            if (timer == null) {
+                timer = created;
+            }
+        }
+        return timer;
+    }
+
+    /**
+     * Get the timers.
+     * @return the timers, sorted by name
+     */
+    public Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(new TreeMap<String, Timer>(timers));
+    }
+
+    /**
+     * Get the counters.
+     * @return the counter values, sorted by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> e : counters.entrySet()) {
+            values.put(e.getKey(), e.getValue().get());
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Get the slowest JAR files.
+     * @return the slowest JAR files, the slowest first
+     */
+    public List<JarTime> getSlowestJars() {
+        List<JarTime> jars;
+        synchronized (slowest) {
+            jars = new ArrayList<JarTime>(slowest);
+        }
+        Collections.sort(jars, Collections.reverseOrder(new JarTimeOrder()));
+        return jars;
+    }
+
+    /**
+     * Create a human readable summary.
+     * @return the summary lines
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<String>();
+        for (Map.Entry<String, Timer> e : getTimers().entrySet()) {
+            Timer timer = e.getValue();
+            lines.add(String.format("%-32s count=%d total=%dms max=%dms",
+                    e.getKey(), timer.getCount(),
+                    millis(timer.getTotal()), millis(timer.getMax())));
+        }
+        for (Map.Entry<String, Long> e : getCounters().entrySet()) {
+            lines.add(String.format("%-32s %d", e.getKey(), e.getValue()));
+        }
+        for (JarTime jar : getSlowestJars()) {
+            lines.add(String.format("%-32s %dms %s", "slowest",
+                    millis(jar.getTime()), jar.getPath()));
+        }
+        return lines;
+    }
+
+    /**
+     * Write the metrics to a file, one {@code name=value} line per value.
+     * Times are written in nanoseconds.
+     * @param file the file to write
+     * @throws IOException if an error occurs while writing the file
+     */
+    public void write(final File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("unable to create directory: " + parent);
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            for (Map.Entry<String, Timer> e : getTimers().entrySet()) {
+                Timer timer = e.getValue();
+                String prefix = "timer." + e.getKey();
+                line(out, prefix + ".count", timer.getCount());
+                line(out, prefix + ".total", timer.getTotal());
+                line(out, prefix + ".max", timer.getMax());
+            }
+            for (Map.Entry<String, Long> e : getCounters().entrySet()) {
+                line(out, "counter." + e.getKey(), e.getValue());
+            }
+            List<JarTime> jars = getSlowestJars();
+            for (int i = 0; i < jars.size(); i++) {
+                out.write("slowest." + i + ".path=" + jars.get(i).getPath()
+                        + "\n");
+                line(out, "slowest." + i + ".time", jars.get(i).getTime());
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write a {@code name=value} line.
+     * @param out the writer
+     * @param name the name
+     * @param value the value
+     * @throws IOException if an error occurs while writing
+     */
+    private static void line(final Writer out, final String name,
+            final long value) throws IOException {
+
+        out.write(name + "=" + value + "\n");
+    }
+
+    /**
+     * Convert nanoseconds to milliseconds.
+     * @param nanos the nanoseconds
+     * @return the milliseconds
+     */
+    private static long millis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * A timer.
+     */
+    public static final class Timer {
+
+        /**
+         * Number of recorded times.
+         */
+        private final AtomicLong count = new AtomicLong();
+
+        /**
+         * Total time in nanoseconds.
+         */
+        private final AtomicLong total = new AtomicLong();
+
+        /**
+         * Maximum time in nanoseconds.
+         */
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * Record a time.
+         * @param nanos the time in nanoseconds
+         */
+        void add(final long nanos) {
+            count.incrementAndGet();
+            total.addAndGet(nanos);
+            long current = max.get();
+            while (nanos > current && !max.compareAndSet(current, nanos)) {
+                current = max.get();
+            }
+        }
+
+        /**
+         * Get the number of recorded times.
+         * @return the count
+         */
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * Get the total time.
+         * @return the total time in nanoseconds
+         */
+        public long getTotal() {
+            return total.get();
+        }
+
+        /**
+         * Get the maximum time.
+         * @return the maximum time in nanoseconds
+         */
+        public long getMax() {
+            return max.get();
+        }
+    }
+
+    /**
+     * The total time spent on a JAR file.
+     */
+    public static final class JarTime {
+
+        /**
+         * The path of the JAR file.
+         */
+        private final String path;
+
+        /**
+         * The time in nanoseconds.
+         */
+        private final long time;
+
+        /**
+         * Create a new {@link JarTime} instance.
+         * @param jarPath the path of the JAR file
+         * @param nanos the time in nanoseconds
+         */
+        JarTime(final String jarPath, final long nanos) {
+            this.path = jarPath;
+            this.time = nanos;
+        }
+
+        /**
+         * Get the path of the JAR file.
+         * @return the path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Get the time.
+         * @return the time in nanoseconds
+         */
+        public long getTime() {
+            return time;
+        }
+    }
+
+    /**
+     * Orders {@link JarTime} instances by time.
+     */
+    private static final class JarTimeOrder implements Comparator<JarTime> {
+
+        @Override
+        public int compare(final JarTime o1, final JarTime o2) {
+            return o1.time < o2.time ? -1 : (o1.time == o2.time ? 0 : 1);
+        }
+    }
+}
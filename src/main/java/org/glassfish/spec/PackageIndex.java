@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The packages of the classes of a JAR file with their number of classes.
+ * The index is built by {@link JarScanner} from the consecutive class
+ * entries of a package, the checks that only depend on the package can be
+ * decided once per package instead of once per class.
+ *
+ * @author Romain Grecourt
+ */
+public final class PackageIndex {
+
+    /**
+     * The number of classes per package, in the order of the JAR entries.
+     */
+    private final Map<String, int[]> counts =
+            new LinkedHashMap<String, int[]>();
+
+    /**
+     * The total number of classes.
+     */
+    private int classCount;
+
+    /**
+     * Add classes to a package.
+     * @param pkg the package name
+     * @param classes the number of classes to add
+     */
+    public void add(final String pkg, final int classes) {
+        int[] count = counts.get(pkg);
+        if (count == null) {
+            count = new int[1];
+            counts.put(pkg, count);
+        }
+        count[0] += classes;
+        classCount += classes;
+    }
+
+    /**
+     * Get the package names.
+     * @return the package names, in the order of the JAR entries
+     */
+    public Set<String> getPackages() {
+        return Collections.unmodifiableSet(counts.keySet());
+    }
+
+    /**
+     * Get the number of classes of a package.
+     * @param pkg the package name
+     * @return the number of classes, {@code 0} if the package is not in
+     * the index
+     */
+    public int getClassCount(final String pkg) {
+        int[] count = counts.get(pkg);
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * Get the total number of classes.
+     * @return the number of classes
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Decide for each package if it is allowed, the matcher is evaluated
+     * once per package.
+     * @param allowed the allowed packages
+     * @return the packages mapped to {@code true} if allowed, in the order
+     * of the JAR entries
+     */
+    public Map<String, Boolean> classify(final PackageMatcher allowed) {
+        Map<String, Boolean> verdicts = new LinkedHashMap<String, Boolean>();
+        for (String pkg : counts.keySet()) {
+            verdicts.put(pkg, allowed.matches(pkg));
+        }
+        return verdicts;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue()[0]);
+        }
+        return sb.insert(0, '{').append('}').toString();
+    }
+}
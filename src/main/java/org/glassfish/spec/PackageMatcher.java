@@ -0,0 +1,416 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Match package names against a set of included and excluded package
+ * patterns, compiled into a single prefix trie. A package matches a pattern
+ * if it is equal to it or is a sub-package of it, and is accepted if it
+ * matches an included pattern and no excluded pattern. Both {@code .} and
+ * {@code /} are accepted as separators.
+ * <p>
+ * A pattern may contain wildcards: {@code *} matches any characters but a
+ * separator and {@code **} matches any characters, e.g.
+ * {@code com.sun.*.internal} or {@code javax.**.spi}. All the patterns are
+ * evaluated in one pass over the package name, matching does not allocate
+ * if the patterns have no wildcard.
+ *
+ * @author Romain Grecourt
+ */
+public final class PackageMatcher {
+
+    /**
+     * Verdict of the nodes that end an included pattern.
+     */
+    private static final int INCLUDE = 1;
+
+    /**
+     * Verdict of the nodes that end an excluded pattern.
+     */
+    private static final int EXCLUDE = 2;
+
+    /**
+     * Kind of the nodes that do not repeat.
+     */
+    private static final int LITERAL = 0;
+
+    /**
+     * Kind of the nodes that repeat on any character but a separator.
+     */
+    private static final int STAR = 1;
+
+    /**
+     * Kind of the nodes that repeat on any character.
+     */
+    private static final int GLOBSTAR = 2;
+
+    /**
+     * Edge label of the {@code *} wildcard while compiling.
+     */
+    private static final Character STAR_EDGE = '*';
+
+    /**
+     * Edge label of the {@code **} wildcard while compiling.
+     */
+    private static final Character GLOBSTAR_EDGE = '\uffff';
+
+    /**
+     * The edge labels of each node, sorted.
+     */
+    private final char[][] labels;
+
+    /**
+     * The edge targets of each node, in label order.
+     */
+    private final int[][] targets;
+
+    /**
+     * The {@code *} child of each node, or {@code -1}.
+     */
+    private final int[] stars;
+
+    /**
+     * The {@code **} child of each node, or {@code -1}.
+     */
+    private final int[] globstars;
+
+    /**
+     * The kind of each node.
+     */
+    private final int[] kinds;
+
+    /**
+     * The verdicts of the patterns ending at each node.
+     */
+    private final int[] verdicts;
+
+    /**
+     * {@code true} if none of the patterns has a wildcard.
+     */
+    private final boolean literal;
+
+    /**
+     * Create a new {@link PackageMatcher} instance.
+     * @param edges the edges of each node
+     * @param nodeKinds the kind of each node
+     * @param nodeVerdicts the verdicts of each node
+     */
+    private PackageMatcher(final List<Map<Character, Integer>> edges,
+            final List<Integer> nodeKinds, final List<Integer> nodeVerdicts) {
+
+        int size = edges.size();
+        labels = new char[size][];
+        targets = new int[size][];
+        stars = new int[size];
+        globstars = new int[size];
+        kinds = new int[size];
+        verdicts = new int[size];
+        boolean noWildcard = true;
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> children =
+                    new TreeMap<Character, Integer>(edges.get(node));
+            Integer star = children.remove(STAR_EDGE);
+            Integer globstar = children.remove(GLOBSTAR_EDGE);
+            stars[node] = star != null ? star : -1;
+            globstars[node] = globstar != null ? globstar : -1;
+            labels[node] = new char[children.size()];
+            targets[node] = new int[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                labels[node][i] = child.getKey();
+                targets[node][i] = child.getValue();
+                i++;
+            }
+            kinds[node] = nodeKinds.get(node);
+            verdicts[node] = nodeVerdicts.get(node);
+            noWildcard &= kinds[node] == LITERAL;
+        }
+        literal = noWildcard;
+    }
+
+    /**
+     * Compile a set of allowed packages.
+     * @param packages the allowed packages, {@code null} values are ignored
+     * @return the matcher
+     */
+    public static PackageMatcher compile(final Collection<String> packages) {
+        return compile(packages, Collections.<String>emptyList());
+    }
+
+    /**
+     * Compile a set of allowed packages.
+     * @param packages the allowed packages, {@code null} values are ignored
+     * @return the matcher
+     */
+    public static PackageMatcher compile(final String... packages) {
+        return compile(Arrays.asList(packages));
+    }
+
+    /**
+     * Compile a set of included and excluded package patterns.
+     * @param includes the included patterns, {@code null} values are ignored
+     * @param excludes the excluded patterns, {@code null} values are ignored
+     * @return the matcher
+     */
+    public static PackageMatcher compile(final Collection<String> includes,
+            final Collection<String> excludes) {
+
+        List<Map<Character, Integer>> edges =
+                new ArrayList<Map<Character, Integer>>();
+        List<Integer> nodeKinds = new ArrayList<Integer>();
+        List<Integer> nodeVerdicts = new ArrayList<Integer>();
+        edges.add(new TreeMap<Character, Integer>());
+        nodeKinds.add(LITERAL);
+        nodeVerdicts.add(0);
+        for (String pattern : includes) {
+            add(pattern, INCLUDE, edges, nodeKinds, nodeVerdicts);
+        }
+        for (String pattern : excludes) {
+            add(pattern, EXCLUDE, edges, nodeKinds, nodeVerdicts);
+        }
+        return new PackageMatcher(edges, nodeKinds, nodeVerdicts);
+    }
+
+    /**
+     * Add a pattern to the trie being compiled.
+     * @param pattern the pattern, ignored if {@code null}
+     * @param verdict the verdict of the pattern
+     * @param edges the edges of each node
+     * @param nodeKinds the kind of each node
+     * @param nodeVerdicts the verdicts of each node
+     */
+    private static void add(final String pattern, final int verdict,
+            final List<Map<Character, Integer>> edges,
+            final List<Integer> nodeKinds, final List<Integer> nodeVerdicts) {
+
+        if (pattern == null) {
+            return;
+        }
+        int node = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            Character c = normalize(pattern.charAt(i));
+            int kind = LITERAL;
+            if (c == '*') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                    c = GLOBSTAR_EDGE;
+                    kind = GLOBSTAR;
+                    i++;
+                } else {
+                    c = STAR_EDGE;
+                    kind = STAR;
+                }
+            }
+            Integer child = edges.get(node).get(c);
+            if (child == null) {
+                child = edges.size();
+                edges.add(new TreeMap<Character, Integer>());
+                nodeKinds.add(kind);
+                nodeVerdicts.add(0);
+                edges.get(node).put(c, child);
+            }
+            node = child;
+            i++;
+        }
+        nodeVerdicts.set(node, nodeVerdicts.get(node) | verdict);
+    }
+
+    /**
+     * Test if the given character is a package separator.
+     * @param c the character to test
+     * @return {@code true} if the character is {@code .} or {@code /}
+     */
+    private static boolean isSeparator(final char c) {
+        return c == '.' || c == '/';
+    }
+
+    /**
+     * Map the separators to {@code .}.
+     * @param c the character to normalize
+     * @return the normalized character
+     */
+    private static char normalize(final char c) {
+        return isSeparator(c) ? '.' : c;
+    }
+
+    /**
+     * Find the child of a node.
+     * @param node the node
+     * @param c the edge label
+     * @return the child node, or {@code -1} if there is no such edge
+     */
+    private int child(final int node, final char c) {
+        int idx = Arrays.binarySearch(labels[node], c);
+        return idx < 0 ? -1 : targets[node][idx];
+    }
+
+    /**
+     * Test if a package is accepted.
+     * @param pkg the package name
+     * @return {@code true} if the package matches an included pattern and
+     * no excluded pattern
+     */
+    public boolean matches(final CharSequence pkg) {
+        return matches(pkg, 0, pkg.length());
+    }
+
+    /**
+     * Test if a region of a character sequence is an accepted package.
+     * @param seq the character sequence
+     * @param start the start index of the package name
+     * @param end the end index of the package name, exclusive
+     * @return {@code true} if the package matches an included pattern and
+     * no excluded pattern
+     */
+    public boolean matches(final CharSequence seq, final int start,
+            final int end) {
+
+        if (!literal) {
+            return matchesWildcards(seq, start, end);
+        }
+        int node = 0;
+        int verdict = 0;
+        for (int i = start;; i++) {
+            if (verdicts[node] != 0
+                    && (i == end || isSeparator(seq.charAt(i)))) {
+                verdict |= verdicts[node];
+                if ((verdict & EXCLUDE) != 0) {
+                    return false;
+                }
+            }
+            if (i == end) {
+                break;
+            }
+            node = child(node, normalize(seq.charAt(i)));
+            if (node < 0) {
+                break;
+            }
+        }
+        return verdict == INCLUDE;
+    }
+
+    /**
+     * Test if a region of a character sequence is an accepted package by
+     * following all the matching paths of the trie at once.
+     * @param seq the character sequence
+     * @param start the start index of the package name
+     * @param end the end index of the package name, exclusive
+     * @return {@code true} if the package matches an included pattern and
+     * no excluded pattern
+     */
+    private boolean matchesWildcards(final CharSequence seq, final int start,
+            final int end) {
+
+        int[] current = new int[kinds.length];
+        int[] next = new int[kinds.length];
+        int[] marks = new int[kinds.length];
+        int size = enter(0, current, 0, marks, 1);
+        int verdict = 0;
+        for (int i = start; size > 0; i++) {
+            if (i == end || isSeparator(seq.charAt(i))) {
+                for (int k = 0; k < size; k++) {
+                    verdict |= verdicts[current[k]];
+                }
+                if ((verdict & EXCLUDE) != 0) {
+                    return false;
+                }
+            }
+            if (i == end) {
+                break;
+            }
+            char c = normalize(seq.charAt(i));
+            int mark = i - start + 2;
+            int nextSize = 0;
+            for (int k = 0; k < size; k++) {
+                int node = current[k];
+                if (kinds[node] == GLOBSTAR
+                        || (kinds[node] == STAR && c != '.')) {
+                    nextSize = enter(node, next, nextSize, marks, mark);
+                }
+                int target = child(node, c);
+                if (target >= 0) {
+                    nextSize = enter(target, next, nextSize, marks, mark);
+                }
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            size = nextSize;
+        }
+        return verdict == INCLUDE;
+    }
+
+    /**
+     * Add a node and the wildcard nodes reachable without consuming a
+     * character to a set of active nodes.
+     * @param node the node to add
+     * @param active the active nodes
+     * @param size the number of active nodes
+     * @param marks the last step at which each node was added
+     * @param mark the current step
+     * @return the new number of active nodes
+     */
+    private int enter(final int node, final int[] active, final int size,
+            final int[] marks, final int mark) {
+
+        if (marks[node] == mark) {
+            return size;
+        }
+        marks[node] = mark;
+        active[size] = node;
+        int newSize = size + 1;
+        if (stars[node] >= 0) {
+            newSize = enter(stars[node], active, newSize, marks, mark);
+        }
+        if (globstars[node] >= 0) {
+            newSize = enter(globstars[node], active, newSize, marks, mark);
+        }
+        return newSize;
+    }
+}
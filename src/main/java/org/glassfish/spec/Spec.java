@@ -41,19 +41,20 @@
 package org.glassfish.spec;
 
 import java.io.IOException;
-import java.util.Enumeration;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.glassfish.spec.rules.RulePlan;
 
 /**
  * The API specification.
+ * The configuration is not modified by
+ * {@link #verify(Metadata, PackageIndex, Metrics)}, a configured instance
+ * can be used to verify several artifacts concurrently.
  * @author Romain Grecourt
  */
 public class Spec {
@@ -79,9 +80,9 @@ public class Spec {
     private Metadata metadata;
 
     /**
-     * The Spec JAR file.
+     * The package index of the classes in the Spec JAR file.
      */
-    private JarFile jar;
+    private PackageIndex packageIndex;
 
     /**
      * The Spec Version.
@@ -128,6 +129,16 @@ public class Spec {
      */
     private String implNamespace;
 
+    /**
+     * The additional package patterns allowed in the JAR file.
+     */
+    private List<String> allowedPackages = Collections.emptyList();
+
+    /**
+     * The package patterns not allowed in the JAR file.
+     */
+    private List<String> excludedPackages = Collections.emptyList();
+
     /**
      * The Spec GroupId Prefix.
      */
@@ -158,26 +169,31 @@ public class Spec {
     }
 
     /**
-     * The errors during spec verification.
+     * The errors of the last {@link #verify()} invocation.
      */
-    private final List<String> errors = new LinkedList<String>();
+    private final List<String> errors =
+            Collections.synchronizedList(new LinkedList<String>());
 
     /**
-     * Constant for Non Final API Build Spec Separator.
+     * The names of the verification rules to skip.
      */
-    private static final String NONFINAL_BUILD_SEPARATOR_SPEC = ".99.";
+    private List<String> disabledRules = Collections.emptyList();
 
     /**
-     * Constant for Non Final API Build Separator.
+     * The class names of the custom verification rules.
      */
-    private static final String NONFINAL_BUILD_SEPARATOR =
-            NONFINAL_BUILD_SEPARATOR_SPEC + "b";
+    private List<String> rules = Collections.emptyList();
 
     /**
-     * Constant for JCP Version Rule.
+     * Constant for Non Final API Build Spec Separator.
      */
-    private static final String JCP_VERSION_RULE =
-            "JCP spec version number must be of the form <major>.<minor>";
+    public static final String NONFINAL_BUILD_SEPARATOR_SPEC = ".99.";
+
+    /**
+     * Constant for Non Final API Build Separator.
+     */
+    public static final String NONFINAL_BUILD_SEPARATOR =
+            NONFINAL_BUILD_SEPARATOR_SPEC + "b";
 
     /**
      * ArtifactId suffix for Spec with {@code api} JarType.
@@ -190,356 +206,101 @@ public class Spec {
     public Spec() {
     }
 
+    /**
+     * Create a copy of a spec configuration bound to the given metadata and
+     * package index.
+     * @param config the spec configuration to copy
+     * @param mdata the metadata to verify
+     * @param index the package index to verify, may be {@code null}
+     */
+    private Spec(final Spec config, final Metadata mdata,
+            final PackageIndex index) {
+
+        this.artifact = config.artifact;
+        this.specVersion = config.specVersion;
+        this.newSpecVersion = config.newSpecVersion;
+        this.specImplVersion = config.specImplVersion;
+        this.implVersion = config.implVersion;
+        this.newImplVersion = config.newImplVersion;
+        this.specBuild = config.specBuild;
+        this.implBuild = config.implBuild;
+        this.apiPackage = config.apiPackage;
+        this.implNamespace = config.implNamespace;
+        this.allowedPackages = config.allowedPackages;
+        this.excludedPackages = config.excludedPackages;
+        this.groupIdPrefix = config.groupIdPrefix;
+        this.nonFinal = config.nonFinal;
+        this.jarType = config.jarType;
+        this.disabledRules = config.disabledRules;
+        this.rules = config.rules;
+        this.metadata = mdata != null ? mdata : config.createMetadata();
+        this.packageIndex = index;
+    }
+
     /**
      * Populate the spec artifact and metadata from the given JAR file.
      * @param jarfile the JAR file to process
      * @throws IOException if an error occurs while reading the JAR file
      */
     public void read(final JarFile jarfile) throws IOException {
-        this.jar = jarfile;
-        this.artifact = Artifact.fromJar(jar);
-        this.metadata = Metadata.fromJar(jar);
-        this.errors.clear();
-        this.errors.addAll(metadata.getErrors());
+        JarScanner.Contents contents = JarScanner.scan(jarfile);
+        this.artifact = contents.getArtifact();
+        this.metadata = contents.getMetadata();
+        this.packageIndex = contents.getPackageIndex();
+        setErrors(metadata.getErrors());
     }
 
     /**
-     * Verify that the classes inside the given jarFile match the right package.
-     * @param jarfile the JAR file to process
-     * @param pkgs the packages to match
-     */
-    @SuppressWarnings("checkstyle:MagicNumber")
-    private void checkClasses(final JarFile jarfile, final String... pkgs) {
-        Enumeration<JarEntry> e = jarfile.entries();
-        Set<String> badPackages = new HashSet<String>();
-        entries:
-        while (e.hasMoreElements()) {
-            JarEntry je = e.nextElement();
-            if (je.isDirectory()) {
-                continue;
-            }
-            String name = je.getName();
-            if (!name.endsWith(".class")) {
-                continue;
-            }
-            name = name.substring(0, name.length() - 6); // remove ".class"
-            name = name.replace('/', '.');
-
-            // name is now the class name,
-            // is it in one of the allowed packages?
-            for (String p : pkgs) {
-                if (name.startsWith(p) && name.charAt(p.length()) == '.') {
-                    // yes, move on to next entry
-                    continue entries;
-                }
-            }
-
-            // not in an allowed package
-            int i = name.lastIndexOf('.');
-            if (i > 0) {
-                // remove class name
-                name = name.substring(0, i);
-            }
-
-            // see if we've already complained about it
-            if (!badPackages.contains(name)) {
-                badPackages.add(name);
-                if (name.startsWith(groupIdPrefix)) {
-                    errors.add(String.format(
-                        "ERROR: jar file includes class in wrong package (%s)",
-                        name));
-                }
-            }
-        }
+     * Perform the Spec verification.
+     * The errors are available with {@link #getErrors()}.
+     * @return the verification result
+     */
+    public VerificationResult verify() {
+        return verify(Metrics.DISABLED);
     }
 
     /**
-     * Perform the Spec verification.
+     * Perform the Spec verification and record the time spent per rule.
+     * The errors are available with {@link #getErrors()}.
+     * @param metrics the metrics to record
+     * @return the verification result
      */
-    @SuppressWarnings({
-        "checkstyle:MethodLength",
-        "checkstyle:LineLength"
-    })
-    public void verify() {
-        this.errors.clear();
-        this.errors.addAll(getMetadata().getErrors());
-
-        StringBuilder configIssues = new StringBuilder();
-        if (specVersion == null || specVersion.isEmpty()) {
-            configIssues.append(" spec-version");
-        }
-        if (apiPackage == null || apiPackage.isEmpty()) {
-            configIssues.append(" api-package");
-        }
-        if (nonFinal
-                && (newSpecVersion == null || newSpecVersion.isEmpty())) {
-            configIssues.append(" new-spec-version");
-        }
-        if (jarType.equals(JarType.impl)) {
-            if (implNamespace == null || implNamespace.isEmpty()) {
-                configIssues.append(" impl-namespace");
-            }
-            if (implVersion == null || implVersion.isEmpty()) {
-                configIssues.append(" impl-version");
-            }
-            if (nonFinal
-                    && (newImplVersion == null || newImplVersion.isEmpty())) {
-                configIssues.append(" new-impl-version");
-            }
-        } else if (!nonFinal) {
-            if (specImplVersion == null || specImplVersion.isEmpty()) {
-                configIssues.append(" spec-impl-version");
-            }
-        }
-
-        // no need to continue further...
-        if (configIssues.length() > 0) {
-            configIssues.insert(0, "ERROR: missing configuration (");
-            configIssues.append(" )");
-            errors.add(configIssues.toString());
-            return;
-        }
-
-        // verify that specVersion is <major>.<minor>
-        if (!specVersion.matches("[0-9]+\\.[0-9]+")) {
-            errors.add(String.format(
-                    "WARNING: spec-version (%s) is invalid, %s",
-                    specVersion,
-                    JCP_VERSION_RULE));
-        }
-
-        // verify that Implementation-Version == Maven-Version
-        if (!getMetadata().getjarImplementationVersion().isEmpty()
-                && !getMetadata().getjarImplementationVersion()
-                .equals(artifact.getAbsoluteVersion())) {
-            errors.add(String.format(
-                    "WARNING: %s (%s) should be equal to Maven-Version (%s)",
-                    Metadata.JAR_IMPLEMENTATION_VERSION,
-                    getMetadata().getjarImplementationVersion(),
-                    artifact.getAbsoluteVersion()));
-        }
-
-        // verify that Extension-Name == apiPackage
-        if (!getMetadata().getJarExtensionName().equals(apiPackage)) {
-            errors.add(String.format(
-                    "WARNING: %s (%s) should be %s",
-                    Metadata.JAR_EXTENSION_NAME,
-                    getMetadata().getJarExtensionName(),
-                    apiPackage));
-        }
-
-        if (!nonFinal) {
-            // verify Bundle-Version
-            if (!getMetadata().getBundleVersion()
-                    .equals(artifact.getAbsoluteVersion())) {
-                errors.add(String.format(
-                        "WARNING: %s (%s) should be %s",
-                        Metadata.BUNDLE_VERSION,
-                        metadata.getBundleVersion(),
-                        artifact.getAbsoluteVersion()));
-            }
-
-            if (!getMetadata()
-                    .getJarSpecificationVersion().equals(specVersion)) {
-                errors.add(String.format(
-                        "WARNING: %s (%s) should be %s",
-                        Metadata.JAR_SPECIFICATION_VERSION,
-                        metadata.getJarSpecificationVersion(),
-                        specVersion));
-            }
-
-            // TODO check BundleSpecVersion == JarSpec
-        } else {
-
-            // verify Bundle-Version
-            ArtifactVersion av = new DefaultArtifactVersion(specVersion);
-            String bundleVersion = av.getMajorVersion()
-                    + "."
-                    + av.getMinorVersion()
-                    + NONFINAL_BUILD_SEPARATOR
-                    + (jarType.equals(JarType.impl) ? implBuild : specBuild);
-
-            if (!getMetadata().getBundleVersion().equals(bundleVersion)) {
-                errors.add(String.format(
-                        "WARNING: %s (%s) should be %s",
-                        Metadata.BUNDLE_VERSION,
-                        metadata.getBundleVersion(),
-                        bundleVersion));
-            }
-
-            String expectedJarSpecVersion =
-                    specVersion + NONFINAL_BUILD_SEPARATOR_SPEC + specBuild;
-            if (!getMetadata().getJarSpecificationVersion().equals(
-                    expectedJarSpecVersion)) {
-                errors.add(String.format(
-                        "WARNING: %s (%s) should be %s",
-                        Metadata.JAR_SPECIFICATION_VERSION,
-                        metadata.getJarSpecificationVersion(),
-                        expectedJarSpecVersion));
-            }
-
-            // TODO check BundleSpecVersion == JarSpec (with no b)
-        }
-
-        if (jarType.equals(JarType.api)) {
-            // verify that groupId starts with groupIdPrefix
-            if (!artifact.getGroupId().startsWith(groupIdPrefix)) {
-                errors.add(String.format(
-                        "WARNING: groupId (%s) must start with \"%s\"",
-                        artifact.getGroupId(),
-                        groupIdPrefix));
-            }
-
-            // verify that artifactId does end with -api
-            if (!artifact.getArtifactId().endsWith(API_SUFFIX)) {
-                errors.add(String.format(
-                        "WARNING: artifactId (%s) should en with %s",
-                        artifact.getArtifactId(),
-                        API_SUFFIX));
-            }
-
-            // verify that apiPackage starts with javax
-            if (!apiPackage.startsWith(JAVAX_GROUP_ID)) {
-                errors.add(String.format(
-                        "WARNING: API packages (%s) must start with \"%s\"",
-                        apiPackage,
-                        groupIdPrefix));
-            }
-
-            // verify that Bundle-SymbolicName == apiPackage-api
-            String symbolicName = apiPackage.concat(API_SUFFIX);
-
-            if (!getMetadata().getBundleSymbolicName().isEmpty()
-                    && !symbolicName.equals(getMetadata().getBundleSymbolicName())) {
-                errors.add(String.format(
-                        "WARNING: %s (%s) should be %s",
-                        Metadata.BUNDLE_SYMBOLIC_NAME,
-                        getMetadata().getBundleSymbolicName(),
-                        symbolicName));
-            }
-
-            if (jar != null) {
-                checkClasses(jar, apiPackage);
-            }
-
-            if (nonFinal) {
-                // verify new spec version
-                if (!newSpecVersion.matches("[0-9]+\\.[0-9]+")) {
-                    errors.add(String.format(
-                            "WARNING: new-spec-version (%s) is invalid, %s",
-                            newSpecVersion,
-                            JCP_VERSION_RULE));
-                }
-
-                // verify that specVersion != newSpecVersion
-                if (specVersion.equals(newSpecVersion)) {
-                    errors.add(String.format(
-                            "WARNING: spec-version (%s) can't be equal to new-spec-version (%s) for non final artifacts",
-                            specVersion,
-                            newSpecVersion));
-                } else {
-                    ArtifactVersion specAV = new DefaultArtifactVersion(specVersion);
-                    ArtifactVersion newSpecAV = new DefaultArtifactVersion(newSpecVersion);
-
-                    // verify that specVersion < newSpecVersion
-                    if (specAV.compareTo(newSpecAV) > 0) {
-                        errors.add(String.format(
-                                "WARNING: new-spec-version (%s) must be greater than spec-version (%s)",
-                                newSpecVersion,
-                                specVersion));
-                    } else {
-                        // verify offset between specVersion and newSpecVersion
-                        if (newSpecAV.getMajorVersion() - specAV.getMajorVersion() > 1
-                                || newSpecAV.getMinorVersion() - specAV.getMinorVersion() > 1) {
-                            errors.add(String.format(
-                                    "WARNING offset between new-spec-version (%s) and spec-version (%s) can't be greater than 1",
-                                    newSpecVersion,
-                                    specVersion));
-                        }
-                    }
-                }
-            } else {
-                // verify that implementation version starts with spec version
-                if (!(specImplVersion.equals(specVersion)
-                        || specImplVersion.startsWith(specVersion + ".")
-                        || specImplVersion.startsWith(specVersion + "-"))) {
-                    errors.add(String.format(
-                            "WARNING: spec-impl-version (%s) must start with JCP spec-version number (%s)",
-                            specImplVersion,
-                            specVersion));
-                }
-            }
-        } else {
-            // verify that groupId starts with groupIdPrefix
-            if (artifact.getGroupId().startsWith(groupIdPrefix)) {
-                errors.add(String.format(
-                        "WARNING: groupId (%s) should not start with \"%s\"",
-                        artifact.getGroupId(),
-                        groupIdPrefix));
-            }
-
-            // verify that artifactId does not end with -api
-            if (artifact.getArtifactId().endsWith(API_SUFFIX)) {
-                errors.add(String.format(
-                        "WARNING: artifactId (%s) should not end with %s",
-                        artifact.getArtifactId(),
-                        API_SUFFIX));
-            }
-
-            // verify that apiPackage starts with groupIdPrefix
-            if (!apiPackage.startsWith(groupIdPrefix)) {
-                errors.add(String.format(
-                        "WARNING: API packages (%s) must start with \"%s\"",
-                        apiPackage,
-                        groupIdPrefix));
-            }
-
-            // verify that Bundle-SymbolicName == implNamespace.apiPackage
-            String symbolicName = implNamespace + '.' + apiPackage;
-
-            if (!getMetadata().getBundleSymbolicName()
-                    .equals(symbolicName)) {
-                errors.add(String.format(
-                        "WARNING: %s (%s) should be %s",
-                        Metadata.BUNDLE_SYMBOLIC_NAME,
-                        getMetadata().getBundleSymbolicName(),
-                        symbolicName));
-            }
+    public VerificationResult verify(final Metrics metrics) {
+        VerificationResult result = verify(metadata, packageIndex, metrics);
+        setErrors(result.getErrors());
+        return result;
+    }
 
-            if (jar != null) {
-                checkClasses(jar, apiPackage, implNamespace);
-            }
+    /**
+     * Verify the given metadata against this spec configuration.
+     * This spec is not modified.
+     * @param actual the metadata to verify, or {@code null} to verify the
+     * metadata derived from this configuration
+     * @param index the package index of the classes to verify, or
+     * {@code null} to skip the package checks
+     * @param metrics the metrics to record
+     * @return the verification result
+     */
+    public VerificationResult verify(final Metadata actual,
+            final PackageIndex index, final Metrics metrics) {
+
+        long start = metrics.start();
+        Spec bound = new Spec(this, actual, index);
+        List<String> result = new LinkedList<String>(
+                bound.metadata.getErrors());
+        RulePlan.get(bound).verify(bound, result, metrics);
+        metrics.stop(Metrics.VERIFY, start);
+        return new VerificationResult(artifact, toString(), result);
+    }
 
-            if (nonFinal) {
-                // verify that implVersion != newImplVersion
-                if (implVersion.equals(newImplVersion)) {
-                    errors.add(String.format(
-                            "WARNING: impl-version (%s) can't be equal to new-impl-version (%s) for non final artifacts",
-                            implVersion,
-                            newImplVersion));
-                } else {
-                    ArtifactVersion implAV = new DefaultArtifactVersion(implVersion);
-                    ArtifactVersion newImplAV = new DefaultArtifactVersion(newImplVersion);
-
-                    // verify that implVersion < newImplVersion
-                    if (implAV.compareTo(newImplAV) > 0) {
-                        errors.add(String.format(
-                                "WARNING: new-impl-version (%s) must be greater than impl-version (%s)",
-                                newImplVersion,
-                                implVersion));
-                    } else {
-                        // verify offset between implVersion and newImplVersion
-                        if (newImplAV.getMajorVersion() - implAV.getMajorVersion() > 1
-                                || newImplAV.getMinorVersion() - implAV.getMinorVersion() > 1) {
-
-                            errors.add(String.format(
-                                    "WARNING: offset between new-impl-version (%s) and impl-version (%s) can't be greater than 1",
-                                    newImplVersion,
-                                    implVersion));
-                        }
-                    }
-                }
-            }
+    /**
+     * Replace the errors of the last verification.
+     * @param errs the new errors
+     */
+    private void setErrors(final List<String> errs) {
+        synchronized (errors) {
+            errors.clear();
+            errors.addAll(errs);
         }
     }
 
@@ -553,14 +314,24 @@ public class Spec {
 
     /**
      * Get the Spec Metadata.
-     * @return the metadata
+     * @return the metadata set with {@link #setMetadata(Metadata)}, or the
+     * metadata derived from this configuration
      */
-    @SuppressWarnings("checkstyle:LineLength")
     public Metadata getMetadata() {
-        if (metadata != null) {
-            return metadata;
+        Metadata m = metadata;
+        if (m != null) {
+            return m;
         }
+        return createMetadata();
+    }
 
+    /**
+     * Create the metadata derived from this configuration.
+     * @return the metadata
+     */
+    @SuppressWarnings("checkstyle:LineLength")
+    private Metadata createMetadata() {
+        Metadata expected;
         Objects.requireNonNull(specVersion, "specVersion is null");
         Objects.requireNonNull(apiPackage, "apiPackage is null");
 
@@ -573,7 +344,7 @@ public class Spec {
                 //  jar Specification-Version:  ${SPEC_VERSION}
                 //  jar Implementation-Version: ${SPEC_IMPL_VERSION}
 
-                metadata = new Metadata(
+                expected = new Metadata(
                         apiPackage + Spec.API_SUFFIX,
                         specVersion,
                         specImplVersion,
@@ -591,7 +362,7 @@ public class Spec {
 
                 String osgiVersion =
                         specVersion + NONFINAL_BUILD_SEPARATOR + specBuild;
-                metadata = new Metadata(
+                expected = new Metadata(
                         apiPackage + Spec.API_SUFFIX,
                         osgiVersion,
                         osgiVersion,
@@ -610,7 +381,7 @@ public class Spec {
                 //  jar Specification-Version:  ${SPEC_VERSION}
                 //  jar Implementation-Version: ${IMPL_VERSION}
 
-                metadata = new Metadata(
+                expected = new Metadata(
                         symbolicName,
                         specVersion,
                         implVersion,
@@ -626,9 +397,9 @@ public class Spec {
                 //  jar Specification-Version:  ${SPEC_VERSION}.99.${SPEC_BUILD}
                 //  jar Implementation-Version: ${NEW_IMPL_VERSION}-b${IMPL_BUILD}
 
-                ArtifactVersion implAv = new DefaultArtifactVersion(implVersion);
+                ArtifactVersion implAv = Versions.parse(implVersion);
 
-                metadata = new Metadata(
+                expected = new Metadata(
                         symbolicName,
                         specVersion + NONFINAL_BUILD_SEPARATOR + implBuild,
                         implAv.getMajorVersion() + "." + implAv.getMinorVersion() + NONFINAL_BUILD_SEPARATOR + implBuild,
@@ -637,7 +408,153 @@ public class Spec {
                         artifact.getAbsoluteVersion());
             }
         }
-        return metadata;
+        return expected;
+    }
+
+    /**
+     * Get the package names of the classes in the Spec JAR file.
+     * @return the package names, or {@code null} if the spec was not read
+     * from a JAR file
+     */
+    public Set<String> getPackages() {
+        return packageIndex != null ? packageIndex.getPackages() : null;
+    }
+
+    /**
+     * Get the package index of the classes in the Spec JAR file.
+     * @return the package index, or {@code null} if the spec was not read
+     * from a JAR file
+     */
+    public PackageIndex getPackageIndex() {
+        return packageIndex;
+    }
+
+    /**
+     * Get the groupId prefix.
+     * @return the groupId prefix
+     */
+    public String getGroupIdPrefix() {
+        return groupIdPrefix;
+    }
+
+    /**
+     * Get the API package.
+     * @return the API package
+     */
+    public String getApiPackage() {
+        return apiPackage;
+    }
+
+    /**
+     * Get the implementation namespace.
+     * @return the implementation namespace
+     */
+    public String getImplNamespace() {
+        return implNamespace;
+    }
+
+    /**
+     * Get the additional package patterns allowed in the JAR file.
+     * @return the package patterns
+     */
+    public List<String> getAllowedPackages() {
+        return allowedPackages;
+    }
+
+    /**
+     * Get the package patterns not allowed in the JAR file.
+     * @return the package patterns
+     */
+    public List<String> getExcludedPackages() {
+        return excludedPackages;
+    }
+
+    /**
+     * Get the implementation version.
+     * @return the implementation version
+     */
+    public String getImplVersion() {
+        return implVersion;
+    }
+
+    /**
+     * Get the new implementation version.
+     * @return the new implementation version
+     */
+    public String getNewImplVersion() {
+        return newImplVersion;
+    }
+
+    /**
+     * Get the spec version.
+     * @return the spec version
+     */
+    public String getSpecVersion() {
+        return specVersion;
+    }
+
+    /**
+     * Get the new spec version.
+     * @return the new spec version
+     */
+    public String getNewSpecVersion() {
+        return newSpecVersion;
+    }
+
+    /**
+     * Get the spec implementation version.
+     * @return the spec implementation version
+     */
+    public String getSpecImplVersion() {
+        return specImplVersion;
+    }
+
+    /**
+     * Get the spec build.
+     * @return the spec build
+     */
+    public String getSpecBuild() {
+        return specBuild;
+    }
+
+    /**
+     * Get the implementation build.
+     * @return the implementation build
+     */
+    public String getImplBuild() {
+        return implBuild;
+    }
+
+    /**
+     * Get the non final flag.
+     * @return {@code true} if the spec is not final
+     */
+    public boolean isNonFinal() {
+        return nonFinal;
+    }
+
+    /**
+     * Get the JAR type.
+     * @return the JAR type
+     */
+    public JarType getJarType() {
+        return jarType;
+    }
+
+    /**
+     * Get the names of the verification rules to skip.
+     * @return the rule names
+     */
+    public List<String> getDisabledRules() {
+        return disabledRules;
+    }
+
+    /**
+     * Get the class names of the custom verification rules.
+     * @return the class names
+     */
+    public List<String> getRules() {
+        return rules;
     }
 
     /**
@@ -676,6 +593,28 @@ public class Spec {
         this.implNamespace = namespace != null ? namespace : "";
     }
 
+    /**
+     * Set the additional package patterns allowed in the JAR file, on top
+     * of the API package and the implementation namespace. A pattern
+     * allows a package and its sub-packages, {@code *} matches any
+     * characters but {@code .} and {@code **} matches any characters.
+     * @param patterns the package patterns
+     */
+    public void setAllowedPackages(final List<String> patterns) {
+        this.allowedPackages = patterns != null
+                ? patterns : Collections.<String>emptyList();
+    }
+
+    /**
+     * Set the package patterns not allowed in the JAR file, even if they
+     * are in an allowed package.
+     * @param patterns the package patterns
+     */
+    public void setExcludedPackages(final List<String> patterns) {
+        this.excludedPackages = patterns != null
+                ? patterns : Collections.<String>emptyList();
+    }
+
     /**
      * Set the implementation version for this spec.
      * @param version the implementation version
@@ -760,6 +699,25 @@ public class Spec {
         this.jarType = JarType.valueOf(type);
     }
 
+    /**
+     * Set the names of the verification rules to skip.
+     * @param names the rule names
+     */
+    public void setDisabledRules(final List<String> names) {
+        this.disabledRules = names != null
+                ? names : Collections.<String>emptyList();
+    }
+
+    /**
+     * Set the class names of custom verification rules.
+     * @param classNames the class names of the
+     * {@link org.glassfish.spec.rules.Rule} implementations
+     */
+    public void setRules(final List<String> classNames) {
+        this.rules = classNames != null
+                ? classNames : Collections.<String>emptyList();
+    }
+
     /**
      * Set metadata for this spec.
      * @param mdata the metadata use
@@ -768,6 +726,36 @@ public class Spec {
         this.metadata = mdata;
     }
 
+    /**
+     * Create a description of the complete configuration of this spec, used
+     * to detect configuration changes between verifications.
+     * @return the fingerprint as a string
+     */
+    public String getFingerprint() {
+        StringBuilder sb = new StringBuilder();
+        for (Object o : new Object[]{
+            artifact,
+            groupIdPrefix,
+            jarType,
+            nonFinal,
+            specVersion,
+            newSpecVersion,
+            specImplVersion,
+            implVersion,
+            newImplVersion,
+            specBuild,
+            implBuild,
+            apiPackage,
+            implNamespace,
+            allowedPackages,
+            excludedPackages,
+            disabledRules,
+            rules}) {
+            sb.append(o).append(';');
+        }
+        return sb.toString();
+    }
+
     /**
      * Create a readable inline description of the spec.
      * @return the description as a string
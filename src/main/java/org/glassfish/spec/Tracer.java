@@ -0,0 +1,98 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+/**
+ * Receives the events of the spec verification, e.g. to forward them to
+ * an event recorder.
+ *
+ * @author Romain Grecourt
+ */
+public interface Tracer {
+
+    /**
+     * A JAR file has been opened.
+     * The count is the number of entries.
+     */
+    String JAR_OPENED = "JarOpened";
+
+    /**
+     * A manifest has been parsed.
+     * The count is unused.
+     */
+    String MANIFEST_PARSED = "ManifestParsed";
+
+    /**
+     * A {@code pom.properties} file has been located and loaded.
+     * The name is the entry name, the count is unused.
+     */
+    String POM_PROPERTIES_LOCATED = "PomPropertiesLocated";
+
+    /**
+     * The class entries of a JAR file have been checked.
+     * The count is the number of classes.
+     */
+    String CLASSES_CHECKED = "ClassesChecked";
+
+    /**
+     * A rule has been evaluated.
+     * The name is the rule name, the count is the number of errors found.
+     */
+    String RULE_EVALUATED = "RuleEvaluated";
+
+    /**
+     * Begin an event.
+     * @param type the event type
+     * @return an opaque handle to pass to
+     * {@link #end(Object, String, String, long, long)}, may be {@code null}
+     */
+    Object begin(String type);
+
+    /**
+     * End an event.
+     * @param handle the handle returned by {@link #begin(String)}
+     * @param path the path of the JAR file, or the artifact for rules
+     * @param name the name of the entry or rule, may be {@code null}
+     * @param count the event count
+     * @param bytes the number of bytes read
+     */
+    void end(Object handle, String path, String name, long count, long bytes);
+}
@@ -0,0 +1,125 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a spec verification.
+ *
+ * @author Romain Grecourt
+ */
+public final class VerificationResult {
+
+    /**
+     * The verified artifact.
+     */
+    private final Artifact artifact;
+
+    /**
+     * The description of the spec configuration.
+     */
+    private final String specDescription;
+
+    /**
+     * The errors.
+     */
+    private final List<String> errors;
+
+    /**
+     * Create a new {@link VerificationResult} instance.
+     * @param a the verified artifact
+     * @param desc the description of the spec configuration
+     * @param errs the errors
+     */
+    public VerificationResult(final Artifact a, final String desc,
+            final List<String> errs) {
+
+        this.artifact = a;
+        this.specDescription = desc != null ? desc : "";
+        this.errors = Collections.unmodifiableList(
+                new ArrayList<String>(errs));
+    }
+
+    /**
+     * Create a new {@link VerificationResult} instance from a verified spec.
+     * @param spec the verified spec
+     * @return the created {@link VerificationResult} instance
+     */
+    public static VerificationResult of(final Spec spec) {
+        return new VerificationResult(spec.getArtifact(), spec.toString(),
+                spec.getErrors());
+    }
+
+    /**
+     * Get the verified artifact.
+     * @return the artifact
+     */
+    public Artifact getArtifact() {
+        return artifact;
+    }
+
+    /**
+     * Get the description of the spec configuration.
+     * @return the description, empty if none
+     */
+    public String getSpecDescription() {
+        return specDescription;
+    }
+
+    /**
+     * Get the errors.
+     * @return the errors, empty if the artifact is compliant
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Test if the artifact is compliant.
+     * @return {@code true} if there is no error
+     */
+    public boolean isSuccess() {
+        return errors.isEmpty();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+/**
+ * Shared version parsing.
+ * Parsed versions are cached and shared, they are immutable.
+ *
+ * @author Romain Grecourt
+ */
+public final class Versions {
+
+    /**
+     * Pattern for JCP spec version numbers: {@code <major>.<minor>}.
+     */
+    private static final Pattern JCP_VERSION =
+            Pattern.compile("[0-9]+\\.[0-9]+");
+
+    /**
+     * Maximum number of cached versions.
+     */
+    private static final int MAX_CACHE_SIZE = 4096;
+
+    /**
+     * The parsed versions, in access order. The least recently used
+     * version is evicted when the cache is full.
+     */
+    private static final Map<String, ArtifactVersion> CACHE =
+            Collections.synchronizedMap(
+            new LinkedHashMap<String, ArtifactVersion>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, ArtifactVersion> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Cannot be instantiated.
+     */
+    private Versions() {
+    }
+
+    /**
+     * Parse the given version.
+     * @param version the version to parse
+     * @return the parsed version, shared and immutable
+     */
+    public static ArtifactVersion parse(final String version) {
+        ArtifactVersion av = CACHE.get(version);
+        if (av == null) {
+            // parse outside of the lock, a concurrent parse of the same
+            // version yields an equal instance
+            av = new ImmutableVersion(new DefaultArtifactVersion(version));
+            CACHE.put(version, av);
+        }
+        return av;
+    }
+
+    /**
+     * Test if the given version is a JCP spec version number.
+     * @param version the version to test
+     * @return {@code true} if the version is of the form
+     * {@code <major>.<minor>}
+     */
+    public static boolean isJcpVersion(final String version) {
+        return JCP_VERSION.matcher(version).matches();
+    }
+
+    /**
+     * A read-only view of a parsed version.
+     * {@link #parseVersion(String)} is not supported.
+     */
+    private static final class ImmutableVersion implements ArtifactVersion {
+
+        /**
+         * The parsed version, never modified.
+         */
+        private final DefaultArtifactVersion delegate;
+
+        /**
+         * Create a new {@link ImmutableVersion} instance.
+         * @param version the parsed version
+         */
+        ImmutableVersion(final DefaultArtifactVersion version) {
+            this.delegate = version;
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return delegate.getMajorVersion();
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return delegate.getMinorVersion();
+        }
+
+        @Override
+        public int getIncrementalVersion() {
+            return delegate.getIncrementalVersion();
+        }
+
+        @Override
+        public int getBuildNumber() {
+            return delegate.getBuildNumber();
+        }
+
+        @Override
+        public String getQualifier() {
+            return delegate.getQualifier();
+        }
+
+        @Override
+        public void parseVersion(final String version) {
+            throw new UnsupportedOperationException(
+                    "shared versions cannot be modified");
+        }
+
+        @Override
+        public int compareTo(final ArtifactVersion other) {
+            if (other instanceof ImmutableVersion) {
+                return delegate.compareTo(((ImmutableVersion) other).delegate);
+            }
+            return delegate.compareTo(other);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ArtifactVersion)) {
+                return false;
+            }
+            return compareTo((ArtifactVersion) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return delegate.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
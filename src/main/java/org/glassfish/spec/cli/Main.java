@@ -0,0 +1,203 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Standalone entry point to run the spec verifications without Maven.
+ * The options are the ones of the {@code cli} goal, each argument that is
+ * not an option is a batch input as described in {@link SpecBatch}.
+ *
+ * @author Romain Grecourt
+ */
+public final class Main {
+
+    /**
+     * The exit status for invalid arguments.
+     */
+    private static final int USAGE = 2;
+
+    /**
+     * The options that take a value, mapped to the property file keys.
+     */
+    private static final Map<String, String> OPTIONS =
+            new HashMap<String, String>();
+
+    static {
+        OPTIONS.put("apijar", "API_JAR");
+        OPTIONS.put("impljar", "IMPL_JAR");
+        OPTIONS.put("apipackage", "API_PACKAGE");
+        OPTIONS.put("implpackage", "IMPL_NAMESPACE");
+        OPTIONS.put("implnamespace", "IMPL_NAMESPACE");
+        OPTIONS.put("specversion", "SPEC_VERSION");
+        OPTIONS.put("specimplversion", "SPEC_IMPL_VERSION");
+        OPTIONS.put("implversion", "IMPL_VERSION");
+        OPTIONS.put("newspecversion", "NEW_SPEC_VERSION");
+        OPTIONS.put("newimplversion", "NEW_IMPL_VERSION");
+        OPTIONS.put("specbuild", "SPEC_BUILD");
+        OPTIONS.put("implbuild", "IMPL_BUILD");
+        OPTIONS.put("specMode", "SPEC_MODE");
+        OPTIONS.put("isApi", "JAR_TYPE");
+    }
+
+    /**
+     * Cannot be instantiated.
+     */
+    private Main() {
+    }
+
+    /**
+     * Print the usage.
+     * @param out the stream to print to
+     */
+    private static void usage(final PrintStream out) {
+        out.println("Usage: java -jar spec-verifier.jar [options]"
+                + " [file.properties|directory|glob...]");
+        out.println("\t--properties=file\tread settings from property file");
+        out.println("\t--nonfinal\t\tnon-final specification");
+        out.println("\t--standalone\t\tAPI has a standalone implementation");
+        out.println("\t--isApi=api|impl\tjar type");
+        out.println("\t--apijar=api.jar\tAPI jar file");
+        out.println("\t--impljar=impl.jar\timplementation jar file");
+        out.println("\t--apipackage=package\tAPI package");
+        out.println("\t--implpackage=package\timplementation package");
+        out.println("\t--specversion=version\tversion number of the JCP"
+                + " specification");
+        out.println("\t--specimplversion=vers\tversion number of the API"
+                + " classes");
+        out.println("\t--implversion=version\tversion number of the"
+                + " implementation");
+        out.println("\t--newspecversion=vers\tversion number of the spec"
+                + " under development");
+        out.println("\t--specbuild=num\t\tbuild number of spec API jar file");
+        out.println("\t--newimplversion=vers\tversion number of the"
+                + " implementation when final");
+        out.println("\t--implbuild=num\t\tbuild number of implementation jar"
+                + " file");
+        out.println("\t--specMode=specMode\t'javaee' or 'jakarta'");
+    }
+
+    /**
+     * Run the verifications.
+     * @param args the command line arguments
+     * @return the exit status, {@code 0} if all the verifications passed
+     */
+    static int run(final String[] args) {
+        Properties options = new Properties();
+        List<String> files = new ArrayList<String>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                files.add(arg);
+                continue;
+            }
+            int idx = arg.indexOf('=');
+            String name = arg.substring(2, idx > 0 ? idx : arg.length());
+            String value = idx > 0 ? arg.substring(idx + 1) : null;
+            if ("help".equals(name)) {
+                usage(System.out);
+                return 0;
+            } else if ("nonfinal".equals(name) && value == null) {
+                options.setProperty("NON_FINAL", "true");
+            } else if ("standalone".equals(name) && value == null) {
+                options.setProperty("JAR_TYPE", "api");
+            } else if ("properties".equals(name) && value != null) {
+                files.add(value);
+            } else if (OPTIONS.containsKey(name) && value != null) {
+                options.setProperty(OPTIONS.get(name), value);
+            } else {
+                System.err.println("ERROR: invalid option " + arg);
+                usage(System.err);
+                return USAGE;
+            }
+        }
+        if (files.isEmpty() && options.isEmpty()) {
+            usage(System.err);
+            return USAGE;
+        }
+
+        Map<String, Properties> specs = new LinkedHashMap<String, Properties>();
+        if (files.isEmpty()) {
+            specs.put("", options);
+        }
+        for (String file : files) {
+            try {
+                specs.putAll(SpecBatch.load(file, options));
+            } catch (IOException ex) {
+                System.err.println("ERROR: unable to read " + file + ": "
+                        + ex.getMessage());
+                return USAGE;
+            }
+        }
+
+        SpecVerifier verifier = new SpecVerifier();
+        int status = 0;
+        for (Map.Entry<String, Properties> spec : specs.entrySet()) {
+            List<String> errors = verifier.verify(spec.getValue());
+            for (String error : errors) {
+                if (specs.size() > 1) {
+                    System.out.print(spec.getKey() + ": ");
+                }
+                System.out.println(error);
+            }
+            if (!errors.isEmpty()) {
+                status = 1;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Verify the specs given on the command line, exit with {@code 1} if a
+     * verification failed.
+     * @param args the command line arguments
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+}
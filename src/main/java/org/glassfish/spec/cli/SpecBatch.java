@@ -0,0 +1,229 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.cli;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Load the spec property files to verify in one invocation.
+ * An input can be:
+ * <ul>
+ * <li>a directory, all its {@code *.properties} files are loaded</li>
+ * <li>a glob pattern, e.g. {@code specs/**}{@code /*.properties}</li>
+ * <li>a property file describing one spec</li>
+ * <li>a manifest property file describing several specs, the keys are
+ * prefixed with the spec name (e.g. {@code servlet.API_PACKAGE}) and the
+ * keys without prefix apply to all the specs</li>
+ * </ul>
+ *
+ * @author Romain Grecourt
+ */
+public final class SpecBatch {
+
+    /**
+     * Cannot be instantiated.
+     */
+    private SpecBatch() {
+    }
+
+    /**
+     * Load the specs of an input.
+     * @param input the input directory, glob pattern or file
+     * @param defaults the default properties, may be {@code null}
+     * @return the specs properties by name, in name order
+     * @throws IOException if an error occurs while reading the files
+     */
+    public static Map<String, Properties> load(final String input,
+            final Properties defaults) throws IOException {
+
+        Map<String, Properties> specs = new LinkedHashMap<String, Properties>();
+        File file = new File(input);
+        if (file.isDirectory()) {
+            for (File f : glob(file, "*.properties")) {
+                specs.put(f.getPath(), read(f, defaults));
+            }
+        } else if (wildcard(input) >= 0) {
+            int idx = input.lastIndexOf('/', wildcard(input));
+            File dir = new File(idx < 0 ? "." : input.substring(0, idx + 1));
+            for (File f : glob(dir, input.substring(idx + 1))) {
+                specs.put(f.getPath(), read(f, defaults));
+            }
+        } else if (!file.isFile()) {
+            throw new FileNotFoundException(input);
+        } else {
+            Properties props = read(file, defaults);
+            if (!isManifest(props)) {
+                specs.put(file.getPath(), props);
+            } else {
+                specs.putAll(split(props, defaults));
+            }
+        }
+        return specs;
+    }
+
+    /**
+     * Find the first glob wildcard of an input.
+     * @param input the input
+     * @return the index of the first wildcard or {@code -1}
+     */
+    private static int wildcard(final String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Test if the given properties describe several specs.
+     * @param props the properties
+     * @return {@code true} if a key is prefixed with a spec name
+     */
+    private static boolean isManifest(final Properties props) {
+        for (String key : props.stringPropertyNames()) {
+            if (key.indexOf('.') > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split the properties of a manifest file by spec name.
+     * @param props the manifest properties
+     * @param defaults the default properties, may be {@code null}
+     * @return the specs properties by name, in name order
+     */
+    private static Map<String, Properties> split(final Properties props,
+            final Properties defaults) {
+
+        Properties shared = new Properties(defaults);
+        Map<String, Properties> specs = new TreeMap<String, Properties>();
+        for (String key : props.stringPropertyNames()) {
+            int idx = key.lastIndexOf('.');
+            if (idx <= 0) {
+                shared.setProperty(key, props.getProperty(key));
+                continue;
+            }
+            String name = key.substring(0, idx);
+            Properties spec = specs.get(name);
+            if (spec == null) {
+                spec = new Properties(shared);
+                specs.put(name, spec);
+            }
+            spec.setProperty(key.substring(idx + 1), props.getProperty(key));
+        }
+        return specs;
+    }
+
+    /**
+     * Read a property file.
+     * @param file the file to read
+     * @param defaults the default properties, may be {@code null}
+     * @return the properties
+     * @throws IOException if an error occurs while reading the file
+     */
+    private static Properties read(final File file, final Properties defaults)
+            throws IOException {
+
+        Properties props = new Properties(defaults);
+        InputStream is = new FileInputStream(file);
+        try {
+            props.load(is);
+        } finally {
+            is.close();
+        }
+        return props;
+    }
+
+    /**
+     * Find the files matching a glob pattern.
+     * @param dir the base directory
+     * @param pattern the glob pattern, relative to the base directory
+     * @return the matching files, sorted
+     * @throws IOException if an error occurs while listing the files
+     */
+    private static List<File> glob(final File dir, final String pattern)
+            throws IOException {
+
+        final Path base = dir.toPath();
+        final PathMatcher matcher = FileSystems.getDefault()
+                .getPathMatcher("glob:" + pattern);
+        final List<File> files = new ArrayList<File>();
+        if (!dir.isDirectory()) {
+            return files;
+        }
+        Files.walkFileTree(base, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path path,
+                    final BasicFileAttributes attrs) {
+
+                if (attrs.isRegularFile()
+                        && matcher.matches(base.relativize(path))) {
+                    files.add(path.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(files);
+        return files;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.cli;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metrics;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.Spec.JarType;
+
+/**
+ * Verify specs described with the keys of the {@code cli} property file
+ * ({@code JAR_TYPE}, {@code API_JAR}, {@code SPEC_VERSION}, ...).
+ * Relative jar paths are resolved against the {@code BASE_DIR} key. The
+ * spec is non final if {@code NON_FINAL} is {@code true}, or if a new
+ * version is given when {@code NON_FINAL} is not set. The
+ * artifact coordinates read from the jar files are kept until the files are
+ * modified. Instances can be used concurrently.
+ *
+ * @author Romain Grecourt
+ */
+public final class SpecVerifier {
+
+    /**
+     * The maximum number of cached artifacts.
+     */
+    private static final int MAX_ARTIFACTS = 256;
+
+    /**
+     * The cached artifacts by canonical jar path, in access order.
+     */
+    private final Map<String, CachedArtifact> artifacts =
+            new LinkedHashMap<String, CachedArtifact>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, CachedArtifact> eldest) {
+                    return size() > MAX_ARTIFACTS;
+                }
+            };
+
+    /**
+     * Verify the spec described by the given request.
+     * @param request the request properties
+     * @return the verification errors
+     */
+    public List<String> verify(final Properties request) {
+        String jarType = request.getProperty("JAR_TYPE", JarType.api.name());
+        Spec spec = new Spec();
+        spec.setSpecImplVersion(request.getProperty("SPEC_IMPL_VERSION"));
+        spec.setSpecBuild(request.getProperty("SPEC_BUILD"));
+        spec.setNewSpecVersion(request.getProperty("NEW_SPEC_VERSION"));
+        spec.setImplVersion(request.getProperty("IMPL_VERSION"));
+        spec.setImplBuild(request.getProperty("IMPL_BUILD"));
+        spec.setNewImplVersion(request.getProperty("NEW_IMPL_VERSION"));
+        String jarKey = jarType.equals(JarType.impl.toString())
+                ? "IMPL_JAR" : "API_JAR";
+
+        String jar = request.getProperty(jarKey);
+        if (jar == null) {
+            return Collections.singletonList("ERROR: " + jarKey
+                    + " is required");
+        }
+        File file = new File(jar);
+        if (!file.isAbsolute()) {
+            file = new File(request.getProperty("BASE_DIR", "."), jar);
+        }
+        try {
+            spec.setArtifact(artifact(file));
+        } catch (IOException ex) {
+            return Collections.singletonList("ERROR: unable to read "
+                    + file + ": " + ex.getMessage());
+        }
+
+        spec.setGroupIdPrefix("jakarta".equals(request.getProperty(
+                "SPEC_MODE")) ? Spec.JAKARTA_GROUP_ID : Spec.JAVAX_GROUP_ID);
+        spec.setSpecVersion(request.getProperty("SPEC_VERSION"));
+        spec.setApiPackage(request.getProperty("API_PACKAGE"));
+        spec.setImplNamespace(request.getProperty("IMPL_NAMESPACE"));
+        spec.setJarType(jarType);
+        String nonFinal = request.getProperty("NON_FINAL");
+        if (nonFinal != null) {
+            spec.setNonFinal(Boolean.parseBoolean(nonFinal));
+        } else {
+            spec.setNonFinal(request.getProperty("NEW_SPEC_VERSION") != null
+                    || request.getProperty("NEW_IMPL_VERSION") != null);
+        }
+        return new ArrayList<String>(
+                spec.verify(null, null, Metrics.DISABLED).getErrors());
+    }
+
+    /**
+     * Get the artifact coordinates of a jar file, the coordinates are read
+     * again only if the file has been modified.
+     * @param file the jar file
+     * @return the artifact
+     * @throws IOException if an error occurs while reading the file
+     */
+    private Artifact artifact(final File file) throws IOException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException("file not found");
+        }
+        String key = file.getCanonicalPath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        CachedArtifact cached;
+        synchronized (artifacts) {
+            cached = artifacts.get(key);
+        }
+        if (cached != null
+                && cached.length == length
+                && cached.lastModified == lastModified) {
+            return cached.artifact;
+        }
+        // scan outside of the lock, concurrent verifications of the same
+        // file may scan it more than once
+        cached = new CachedArtifact(length, lastModified,
+                JarScanner.scan(file).getArtifact());
+        synchronized (artifacts) {
+            artifacts.put(key, cached);
+        }
+        return cached.artifact;
+    }
+
+    /**
+     * The artifact coordinates of a jar file.
+     */
+    private static final class CachedArtifact {
+
+        /**
+         * The file size when the file was read.
+         */
+        private final long length;
+
+        /**
+         * The file modification time when the file was read.
+         */
+        private final long lastModified;
+
+        /**
+         * The artifact coordinates.
+         */
+        private final Artifact artifact;
+
+        /**
+         * Create a new {@link CachedArtifact} instance.
+         * @param size the file size
+         * @param modified the file modification time
+         * @param art the artifact read from the file
+         */
+        CachedArtifact(final long size, final long modified,
+                final Artifact art) {
+
+            this.length = size;
+            this.lastModified = modified;
+            this.artifact = art;
+        }
+    }
+}
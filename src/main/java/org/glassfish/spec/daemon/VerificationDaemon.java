@@ -0,0 +1,309 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.daemon;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import org.glassfish.spec.cli.SpecVerifier;
+
+/**
+ * A long running verification server listening on the loopback interface.
+ * The JVM stays warm between the verifications and the artifact coordinates
+ * read from the jar files are cached until the files are modified.
+ * <p>
+ * A request is a list of {@code key=value} lines as described in
+ * {@link SpecVerifier}, terminated by an empty line. The response
+ * contains one line per error followed by {@link #OK} or {@link #FAILED}.
+ * A request with {@code COMMAND=stop} stops the server.
+ * </p>
+ * <p>
+ * Every request must contain a {@code TOKEN} line with the random token
+ * of the server, see {@link #writeToken(File)}. Other local users cannot
+ * read the token file, they cannot stop the server or make it read files
+ * with the permissions of its owner.
+ * </p>
+ *
+ * @author Romain Grecourt
+ */
+public final class VerificationDaemon implements Closeable {
+
+    /**
+     * The last response line of a successful verification.
+     */
+    public static final String OK = "OK";
+
+    /**
+     * The last response line of a failed verification.
+     */
+    public static final String FAILED = "FAILED";
+
+    /**
+     * The maximum time to wait for a client request, in milliseconds.
+     */
+    private static final int READ_TIMEOUT = 30000;
+
+    /**
+     * The number of random bytes of the token.
+     */
+    private static final int TOKEN_SIZE = 32;
+
+    /**
+     * Hexadecimal digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The server socket.
+     */
+    private final ServerSocket server;
+
+    /**
+     * The verifier, keeps the artifacts read from the jar files.
+     */
+    private final SpecVerifier verifier = new SpecVerifier();
+
+    /**
+     * The token expected in every request.
+     */
+    private final String token = newToken();
+
+    /**
+     * Set when the server is requested to stop.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Create a new {@link VerificationDaemon} instance.
+     * @param port the port to listen on, {@code 0} for any free port
+     * @param idleTimeout the time in milliseconds after which the server
+     * stops if no request is received, {@code 0} to never stop
+     * @throws IOException if the server socket cannot be created
+     */
+    public VerificationDaemon(final int port, final int idleTimeout)
+            throws IOException {
+
+        server = new ServerSocket(port, 0, InetAddress.getByName(null));
+        server.setSoTimeout(idleTimeout);
+    }
+
+    /**
+     * Create a random token.
+     * @return the token as an hexadecimal string
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_SIZE];
+        new SecureRandom().nextBytes(bytes);
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Get the token expected in every request.
+     * @return the token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Write the token to a file only readable by the current user.
+     * An existing file is replaced.
+     * @param file the token file
+     * @throws IOException if an error occurs while writing the file
+     */
+    public void writeToken(final File file) throws IOException {
+        Path path = file.toPath();
+        Files.deleteIfExists(path);
+        if (FileSystems.getDefault().supportedFileAttributeViews()
+                .contains("posix")) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(path);
+            file.setReadable(false, false);
+            file.setWritable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(true, true);
+        }
+        Files.write(path, (token + "\n").getBytes("UTF-8"));
+    }
+
+    /**
+     * Test if a request carries the token of this server.
+     * @param request the request properties
+     * @return {@code true} if the token matches
+     * @throws IOException if the token cannot be encoded
+     */
+    private boolean isAuthorized(final Properties request)
+            throws IOException {
+
+        String actual = request.getProperty("TOKEN");
+        return actual != null && MessageDigest.isEqual(
+                token.getBytes("UTF-8"), actual.getBytes("UTF-8"));
+    }
+
+    /**
+     * Get the port the server is listening on.
+     * @return the port
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Serve the requests one at a time until the server is stopped, closed
+     * or idle for longer than the idle timeout.
+     * @throws IOException if an error occurs while accepting a connection
+     */
+    public void run() throws IOException {
+        try {
+            while (!stopped) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException ex) {
+                    break;
+                } catch (SocketException ex) {
+                    if (stopped) {
+                        break;
+                    }
+                    throw ex;
+                }
+                try {
+                    handle(socket);
+                } catch (IOException ex) {
+                    // the client went away, keep serving
+                } finally {
+                    socket.close();
+                }
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Read a request from a client and write the response.
+     * @param socket the client connection
+     * @throws IOException if an error occurs while reading or writing
+     */
+    private void handle(final Socket socket) throws IOException {
+        socket.setSoTimeout(READ_TIMEOUT);
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), "UTF-8"));
+        StringBuilder sb = new StringBuilder();
+        String line = in.readLine();
+        while (line != null && line.length() > 0) {
+            sb.append(line).append('\n');
+            line = in.readLine();
+        }
+        Properties request = new Properties();
+        request.load(new StringReader(sb.toString()));
+
+        List<String> errors;
+        if (!isAuthorized(request)) {
+            errors = Collections.singletonList("ERROR: invalid token");
+        } else if ("stop".equals(request.getProperty("COMMAND"))) {
+            stopped = true;
+            errors = Collections.<String>emptyList();
+        } else {
+            errors = verify(request);
+        }
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                socket.getOutputStream(), "UTF-8"));
+        for (String error : errors) {
+            out.write(error);
+            out.write('\n');
+        }
+        out.write(errors.isEmpty() ? OK : FAILED);
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Verify the spec described by the given request.
+     * @param request the request properties
+     * @return the verification errors
+     */
+    public List<String> verify(final Properties request) {
+        return verifier.verify(request);
+    }
+
+    /**
+     * Stop the server.
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        try {
+            server.close();
+        } catch (IOException ex) {
+            // already closed
+        }
+    }
+}
@@ -42,19 +42,35 @@ package org.glassfish.spec.maven;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Collections;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.jar.JarFile;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.SelectorUtils;
 import org.glassfish.spec.Artifact;
-import org.glassfish.spec.Metadata;
+import org.glassfish.spec.DirectoryWatcher;
+import org.glassfish.spec.JarPool;
+import org.glassfish.spec.JarReader;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metrics;
 import org.glassfish.spec.Spec;
+import org.glassfish.spec.VerificationResult;
+import org.glassfish.spec.report.ReportWriter;
+import org.glassfish.spec.report.Reports;
 
 /**
  *
@@ -63,7 +79,8 @@ import org.glassfish.spec.Spec;
  */
 @Mojo(name = "check-distribution",
       requiresProject = true,
-      defaultPhase = LifecyclePhase.PACKAGE)
+      defaultPhase = LifecyclePhase.PACKAGE,
+      threadSafe = true)
 public final class CheckDistributionMojo extends AbstractMojo {
 
     /**
@@ -81,76 +98,577 @@ public final class CheckDistributionMojo extends AbstractMojo {
     /**
      * The directory containing the spec artifacts to process.
      */
-    @Parameter(property = "dir", required = true)
+    @Parameter(property = "dir")
     private File dir;
 
+    /**
+     * A distribution archive (zip, ear, war) containing the spec artifacts
+     * to process, used instead of {@link #dir}.
+     * The nested artifacts are read from the archive without being
+     * extracted, the include and exclude patterns are matched against the
+     * entry paths, e.g. {@code glassfish/modules/javax*.jar} or
+     * {@code **}{@code /javax*.jar}.
+     */
+    @Parameter(property = "archive")
+    private File archive;
+
+    /**
+     * Keep running after the verification and verify the artifacts created
+     * or modified in {@link #dir} as they appear, until the build is
+     * interrupted.
+     */
+    @Parameter(property = "watch", defaultValue = "false")
+    private boolean watch;
+
+    /**
+     * The time in milliseconds without changes in {@link #dir} after which
+     * the created or modified artifacts are verified, in watch mode.
+     */
+    @Parameter(property = "watchDebounce", defaultValue = "1000")
+    private long watchDebounce;
+
+    /**
+     * Mode. Allowed values are "javaee", "jakarta"
+     */
+    @Parameter(property = "specMode", defaultValue = "javaee")
+    private String specMode;
+
     /**
      * The specification configurations.
      */
     @Parameter(property = "specs", required = true)
     private List<Spec> specs;
 
+    /**
+     * Verify that the classes are in the API package, the implementation
+     * namespace or the allowed packages.
+     */
+    @Parameter(property = "checkPackages", defaultValue = "false")
+    private boolean checkPackages;
+
+    /**
+     * Number of threads used to verify the spec artifacts.
+     * {@code 0} (the default) uses one thread per available processor,
+     * {@code 1} verifies the artifacts serially.
+     */
+    @Parameter(property = "threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Maximum number of JAR files open at the same time.
+     */
+    @Parameter(property = "maxOpenJars", defaultValue = "64")
+    private int maxOpenJars;
+
+    /**
+     * Re-use the reports of the previous run for unchanged artifacts.
+     */
+    @Parameter(property = "useCache", defaultValue = "true")
+    private boolean useCache;
+
+    /**
+     * The directory where the verification cache is stored.
+     */
+    @Parameter(property = "cacheDirectory",
+            defaultValue = "${project.build.directory}/spec-version-cache")
+    private File cacheDirectory;
+
+    /**
+     * Comma separated list of machine readable report formats to write.
+     * Supported formats are {@code jsonl}, {@code junit} and {@code sarif}.
+     */
+    @Parameter(property = "reportFormats")
+    private String reportFormats;
+
+    /**
+     * The directory where the machine readable reports are written.
+     */
+    @Parameter(property = "reportDirectory",
+            defaultValue = "${project.build.directory}/spec-version-reports")
+    private File reportDirectory;
+
+    /**
+     * Log the time spent per phase and per rule, and the slowest artifacts.
+     */
+    @Parameter(property = "metrics", defaultValue = "false")
+    private boolean metrics;
+
+    /**
+     * File where the metrics are written, as {@code name=value} lines.
+     */
+    @Parameter(property = "metricsFile")
+    private File metricsFile;
+
+    /**
+     * The plugin descriptor.
+     */
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
+
+    /**
+     * The mojo execution.
+     */
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    private MojoExecution mojoExecution;
+
+    /**
+     * The verification cache, {@code null} if not used.
+     */
+    private VerificationCache cache;
+
+    /**
+     * The configuration fingerprint used for the cache entries.
+     */
+    private String fingerprint;
+
+    /**
+     * The pool of open JAR files.
+     */
+    private JarPool jarPool;
+
+    /**
+     * The metrics recorder.
+     */
+    private Metrics recorder = Metrics.DISABLED;
+
     /**
      * Find or create the specification configuration for the given artifact.
-     * @param file the artifact file to match
+     * @param artifact the artifact to match
      * @return the spec configuration
-     * @throws IOException if an error occurs while reading the JAR file entries
      */
-    private Spec getSpec(final File file) throws IOException {
-        JarFile jar = new JarFile(file);
-        Artifact a = Artifact.fromJar(jar);
+    private Spec getSpec(final Artifact artifact) {
         for (Spec s : specs) {
-            if (s.getArtifact().equals(a)) {
-                s.setMetadata(Metadata.fromJar(jar));
+            if (s.getArtifact().equals(artifact)) {
                 return s;
             }
         }
         Spec spec = new Spec();
-        spec.setArtifact(a);
-        spec.setMetadata(Metadata.fromJar(jar));
+        spec.setGroupIdPrefix(groupIdPrefix());
+        spec.setArtifact(artifact);
         return spec;
     }
 
+    /**
+     * Get the groupId prefix of the spec mode.
+     * @return the groupId prefix
+     */
+    private String groupIdPrefix() {
+        return specMode.equals("jakarta")
+                ? Spec.JAKARTA_GROUP_ID : Spec.JAVAX_GROUP_ID;
+    }
+
+    /**
+     * Verify the given spec artifact.
+     * @param file the artifact file to verify
+     * @return the verification result
+     * @throws IOException if an error occurs while reading the JAR file entries
+     */
+    private VerificationResult verify(final File file) throws IOException {
+        long start = recorder.start();
+        try {
+            if (cache != null) {
+                VerificationResult result = cache.get(file, fingerprint);
+                if (result != null) {
+                    recorder.count(Metrics.CACHE_HITS, 1);
+                    return result;
+                }
+                recorder.count(Metrics.CACHE_MISSES, 1);
+            }
+
+            JarScanner.Contents contents = JarScanner.scan(file, jarPool,
+                    recorder);
+            Spec spec = getSpec(contents.getArtifact());
+
+            // the configured specs are shared between the worker threads,
+            // verify does not modify them
+            VerificationResult result = spec.verify(
+                    contents.getMetadata(),
+                    checkPackages ? contents.getPackageIndex() : null,
+                    recorder);
+            if (cache != null) {
+                cache.put(file, fingerprint, result);
+            }
+            return result;
+        } finally {
+            recorder.stopJar(file.getPath(), start);
+        }
+    }
+
+    /**
+     * Get the name used for the cache and report files of this execution.
+     * @return the execution name
+     */
+    private String executionName() {
+        return mojoExecution.getGoal() + "-" + mojoExecution.getExecutionId();
+    }
+
+    /**
+     * Load the verification cache.
+     */
+    private void loadCache() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(checkPackages);
+        for (Spec spec : specs) {
+            sb.append('|').append(spec.getFingerprint());
+        }
+        fingerprint = VerificationCache.fingerprint(plugin.getVersion(),
+                sb.toString());
+        cache = new VerificationCache(cacheDirectory, executionName());
+        try {
+            cache.load();
+        } catch (IOException ex) {
+            getLog().warn("unable to load the verification cache: "
+                    + ex.getMessage());
+        }
+    }
+
+    /**
+     * Close the report writer.
+     * @param reportWriter the report writer to close, may be {@code null}
+     */
+    private void closeReport(final ReportWriter reportWriter) {
+        if (reportWriter != null) {
+            try {
+                reportWriter.close();
+            } catch (IOException ex) {
+                getLog().warn("unable to write the report: "
+                        + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Test if an archive entry matches the include and exclude patterns.
+     * @param path the entry path
+     * @return {@code true} if the entry is included
+     */
+    private boolean isIncluded(final String path) {
+        boolean included = false;
+        for (String pattern : includes.split(",")) {
+            if (SelectorUtils.matchPath(pattern.trim(), path)) {
+                included = true;
+                break;
+            }
+        }
+        if (included && excludes != null) {
+            for (String pattern : excludes.split(",")) {
+                if (SelectorUtils.matchPath(pattern.trim(), path)) {
+                    return false;
+                }
+            }
+        }
+        return included;
+    }
+
+    /**
+     * Verify a spec artifact nested in the distribution archive.
+     * @param nested the nested artifact
+     * @return the verification result
+     * @throws IOException if an error occurs while reading the artifact
+     */
+    private VerificationResult verify(final JarReader.Nested nested)
+            throws IOException {
+
+        long start = recorder.start();
+        try {
+            long openStart = recorder.start();
+            JarReader jar = nested.open();
+            recorder.stop(Metrics.JAR_OPEN, openStart);
+            recorder.count(Metrics.BYTES, nested.getSize());
+            JarScanner.Contents contents =
+                    new JarScanner.Contents(nested.getName());
+            JarScanner.scan(jar, recorder, contents);
+            return getSpec(contents.getArtifact()).verify(
+                    contents.getMetadata(),
+                    checkPackages ? contents.getPackageIndex() : null,
+                    recorder);
+        } finally {
+            recorder.stopJar(nested.getName(), start);
+        }
+    }
+
+    /**
+     * Create the verification tasks for the artifacts nested in the
+     * distribution archive.
+     * @param bundle the distribution archive
+     * @param sources the list of artifact names to add to
+     * @param tasks the list of tasks to add to
+     * @throws IOException if an error occurs while reading the archive
+     */
+    private void addNested(final JarReader bundle, final List<String> sources,
+            final List<Callable<VerificationResult>> tasks)
+            throws IOException {
+
+        JarReader.Entry entry = bundle.entries();
+        while (entry.next()) {
+            if (entry.isDirectory() || !isIncluded(entry.getName())) {
+                continue;
+            }
+            final JarReader.Nested nested = bundle.getNested(entry);
+            sources.add(nested.getName());
+            tasks.add(new Callable<VerificationResult>() {
+                @Override
+                public VerificationResult call() throws IOException {
+                    return verify(nested);
+                }
+            });
+        }
+    }
+
+    /**
+     * Create the verification tasks for the artifacts in the directory.
+     * @param sources the list of artifact names to add to
+     * @param tasks the list of tasks to add to
+     * @throws IOException if an error occurs while listing the files
+     */
+    private void addFiles(final List<String> sources,
+            final List<Callable<VerificationResult>> tasks)
+            throws IOException {
+
+        List<File> jars = FileUtils.getFiles(dir, includes, excludes);
+        for (final File jar : jars) {
+            sources.add(jar.getPath());
+            tasks.add(new Callable<VerificationResult>() {
+                @Override
+                public VerificationResult call() throws IOException {
+                    return verify(jar);
+                }
+            });
+        }
+    }
+
+    /**
+     * Close the distribution archive once the tasks using it are stopped.
+     * @param executor the executor running the tasks
+     * @param bundle the distribution archive, may be {@code null}
+     */
+    private void closeArchive(final ExecutorService executor,
+            final JarReader bundle) {
+
+        if (bundle == null) {
+            return;
+        }
+        // the nested artifacts are views of the archive
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        bundle.close();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
-        if (!dir.exists()) {
-            String msg = String.format(
-                    "directory (%s) does not exist",
-                    dir.getAbsolutePath());
+        for (Spec spec : specs) {
+            spec.setGroupIdPrefix(groupIdPrefix());
+        }
+        if (!watch) {
+            verifyAll();
+            return;
+        }
+        if (archive != null || dir == null || !dir.isDirectory()) {
+            String msg = "watch requires an existing dir";
+            getLog().error(msg);
+            throw new MojoFailureException(msg);
+        }
+        Path root = dir.getAbsoluteFile().toPath();
+        DirectoryWatcher watcher;
+        try {
+            // watch before the first verification to not miss any change
+            watcher = new DirectoryWatcher(root.toFile(), watchDebounce);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        try {
+            verifyAll();
+            watch(watcher, root);
+        } finally {
+            try {
+                watcher.close();
+            } catch (IOException ex) {
+                getLog().warn(ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Verify all the artifacts of the distribution.
+     * @throws MojoExecutionException if an error occurs while reading the
+     * artifacts or writing the reports
+     * @throws MojoFailureException if the distribution does not exist
+     */
+    private void verifyAll()
+            throws MojoExecutionException, MojoFailureException {
+
+        File source = archive != null ? archive : dir;
+        if (source == null || !source.exists()) {
+            String msg = source == null
+                    ? "dir or archive is required"
+                    : String.format("%s (%s) does not exist",
+                            archive != null ? "archive" : "directory",
+                            source.getAbsolutePath());
             getLog().error(msg);
             throw new MojoFailureException(msg);
         }
 
-        List<File> jars = Collections.EMPTY_LIST;
+        recorder = MetricsReport.create(metrics, metricsFile);
+        jarPool = new JarPool(maxOpenJars);
+        List<String> sources = new ArrayList<String>();
+        List<Callable<VerificationResult>> tasks =
+                new ArrayList<Callable<VerificationResult>>();
+        JarReader bundle = null;
+        long globStart = recorder.start();
         try {
-            jars = FileUtils.getFiles(dir, includes, excludes);
+            if (archive != null) {
+                bundle = JarReader.open(archive);
+                addNested(bundle, sources, tasks);
+            } else {
+                addFiles(sources, tasks);
+            }
         } catch (IOException ex) {
+            if (bundle != null) {
+                bundle.close();
+            }
             throw new MojoExecutionException(ex.getMessage(), ex);
         }
+        recorder.stop(Metrics.GLOB, globStart);
 
-        for (File jar : jars) {
-            try {
-                Spec spec = getSpec(jar);
-                spec.verify();
-
-                if (!spec.getErrors().isEmpty()) {
-                    System.out.println("");
-                    System.out.println(spec.getArtifact().toString());
-                    String specDesc = spec.toString();
-                    if (!specDesc.isEmpty()) {
-                        System.out.println(spec.toString());
+        if (useCache && archive == null) {
+            loadCache();
+        }
+
+        ReportWriter reportWriter;
+        try {
+            reportWriter = Reports.open(reportFormats, reportDirectory,
+                    executionName(), plugin.getVersion());
+        } catch (IOException ex) {
+            if (bundle != null) {
+                bundle.close();
+            }
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            if (bundle != null) {
+                bundle.close();
+            }
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+
+        int nThreads = threads > 0
+                ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<VerificationResult>> results =
+                    new ArrayList<Future<VerificationResult>>(tasks.size());
+            for (Callable<VerificationResult> task : tasks) {
+                results.add(executor.submit(task));
+            }
+
+            // report the results in the order of the files
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    VerificationResult result = results.get(i).get();
+                    long reportStart = recorder.start();
+                    SpecReport.print(SpecReport.lines(result));
+                    if (reportWriter != null) {
+                        reportWriter.write(sources.get(i), result);
                     }
-                    for (int i = 0; i < spec.getErrors().size(); i++) {
-                        System.out.println(new StringBuilder()
-                                .append('-')
-                                .append(' ')
-                                .append(spec.getErrors().get(i))
-                                .toString());
+                    recorder.stop(Metrics.REPORT, reportStart);
+                } catch (IOException ex) {
+                    throw new MojoExecutionException(ex.getMessage(), ex);
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof IOException) {
+                        getLog().warn(cause.getMessage(), cause);
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else {
+                        throw new MojoExecutionException(
+                                cause.getMessage(), cause);
                     }
-                    System.out.println("");
                 }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } finally {
+            executor.shutdownNow();
+            closeArchive(executor, bundle);
+            closeReport(reportWriter);
+        }
+
+        saveCache();
+        MetricsReport.report(recorder, getLog(), metrics, metricsFile);
+    }
+
+    /**
+     * Save the verification cache, if enabled.
+     */
+    private void saveCache() {
+        if (cache != null) {
+            try {
+                cache.save();
+            } catch (IOException ex) {
+                getLog().warn("unable to save the verification cache: "
+                        + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Verify the created or modified artifacts until interrupted.
+     * @param watcher the watcher of the distribution directory
+     * @param root the absolute distribution directory
+     * @throws MojoExecutionException if an error occurs while watching
+     */
+    private void watch(final DirectoryWatcher watcher, final Path root)
+            throws MojoExecutionException {
+
+        getLog().info("Watching " + root + " for changes");
+        while (true) {
+            List<File> changed;
+            try {
+                changed = watcher.poll(-1);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
             } catch (IOException ex) {
-                getLog().warn(ex.getMessage(), ex);
+                throw new MojoExecutionException(ex.getMessage(), ex);
+            }
+            int verified = 0;
+            int failed = 0;
+            for (File file : changed) {
+                String path = root.relativize(file.toPath()).toString()
+                        .replace(File.separatorChar, '/');
+                if (!isIncluded(path)) {
+                    continue;
+                }
+                try {
+                    VerificationResult result = verify(file);
+                    SpecReport.print(SpecReport.lines(result));
+                    verified++;
+                    if (!result.isSuccess()) {
+                        failed++;
+                    }
+                } catch (IOException ex) {
+                    // the file may still be incomplete
+                    getLog().warn(path + ": " + ex.getMessage());
+                } catch (RuntimeException ex) {
+                    // e.g. a malformed manifest, keep watching
+                    getLog().warn(path + ": " + ex.getMessage());
+                    getLog().debug(ex);
+                }
+            }
+            if (verified > 0) {
+                getLog().info(String.format(
+                        "%d artifact(s) verified, %d failed",
+                        verified, failed));
+                saveCache();
             }
         }
     }
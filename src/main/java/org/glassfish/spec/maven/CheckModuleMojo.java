@@ -42,17 +42,23 @@ package org.glassfish.spec.maven;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.jar.JarFile;
+import java.util.List;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.glassfish.spec.Artifact;
-import org.glassfish.spec.Metadata;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metrics;
 import org.glassfish.spec.Spec;
+import org.glassfish.spec.VerificationResult;
+import org.glassfish.spec.report.ReportWriter;
+import org.glassfish.spec.report.Reports;
 
 /**
  *
@@ -61,7 +67,8 @@ import org.glassfish.spec.Spec;
  */
 @Mojo(name = "check-module",
       requiresProject = true,
-      defaultPhase = LifecyclePhase.PACKAGE)
+      defaultPhase = LifecyclePhase.PACKAGE,
+      threadSafe = true)
 public final class CheckModuleMojo extends AbstractMojo {
 
     /**
@@ -94,6 +101,64 @@ public final class CheckModuleMojo extends AbstractMojo {
     @Parameter(property = "spec", required = true)
     private Spec spec;
 
+    /**
+     * Verify that the classes are in the API package, the implementation
+     * namespace or the allowed packages.
+     */
+    @Parameter(property = "checkPackages", defaultValue = "false")
+    private boolean checkPackages;
+
+    /**
+     * Re-use the report of the previous run if the module is unchanged.
+     */
+    @Parameter(property = "useCache", defaultValue = "true")
+    private boolean useCache;
+
+    /**
+     * The directory where the verification cache is stored.
+     */
+    @Parameter(property = "cacheDirectory",
+            defaultValue = "${project.build.directory}/spec-version-cache")
+    private File cacheDirectory;
+
+    /**
+     * Comma separated list of machine readable report formats to write.
+     * Supported formats are {@code jsonl}, {@code junit} and {@code sarif}.
+     */
+    @Parameter(property = "reportFormats")
+    private String reportFormats;
+
+    /**
+     * The directory where the machine readable reports are written.
+     */
+    @Parameter(property = "reportDirectory",
+            defaultValue = "${project.build.directory}/spec-version-reports")
+    private File reportDirectory;
+
+    /**
+     * Log the time spent per phase and per rule, and the slowest artifacts.
+     */
+    @Parameter(property = "metrics", defaultValue = "false")
+    private boolean metrics;
+
+    /**
+     * File where the metrics are written, as {@code name=value} lines.
+     */
+    @Parameter(property = "metricsFile")
+    private File metricsFile;
+
+    /**
+     * The plugin descriptor.
+     */
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
+
+    /**
+     * The mojo execution.
+     */
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    private MojoExecution mojoExecution;
+
     @Override
     @SuppressWarnings("checkstyle:LineLength")
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -114,30 +179,64 @@ public final class CheckModuleMojo extends AbstractMojo {
                     project.getGroupId(),
                     project.getArtifactId(),
                     project.getVersion()));
-            spec.setMetadata(Metadata.fromJar(new JarFile(module)));
-            spec.verify();
-
-            if (!spec.getErrors().isEmpty()) {
-                System.out.println("");
-                System.out.println(spec.getArtifact().toString());
-                String specDesc = spec.toString();
-                if (!specDesc.isEmpty()) {
-                    System.out.println(spec.toString());
+            Metrics recorder = MetricsReport.create(metrics, metricsFile);
+            long start = recorder.start();
+            String name = mojoExecution.getGoal() + "-"
+                    + mojoExecution.getExecutionId();
+            VerificationCache cache = null;
+            String fingerprint = null;
+            VerificationResult result = null;
+            if (useCache) {
+                fingerprint = VerificationCache.fingerprint(
+                        plugin.getVersion(),
+                        spec.getFingerprint() + '|' + checkPackages);
+                cache = new VerificationCache(cacheDirectory, name);
+                cache.load();
+                result = cache.get(module, fingerprint);
+                if (result != null) {
+                    recorder.count(Metrics.CACHE_HITS, 1);
                 }
-                for (int i = 0; i < spec.getErrors().size(); i++) {
-                    System.out.println(new StringBuilder()
-                            .append('-')
-                            .append(' ')
-                            .append(spec.getErrors().get(i))
-                            .toString());
+            }
+
+            if (result == null) {
+                recorder.count(Metrics.CACHE_MISSES, 1);
+                JarScanner.Contents contents =
+                        JarScanner.scan(module, recorder);
+                result = spec.verify(contents.getMetadata(),
+                        checkPackages ? contents.getPackageIndex() : null,
+                        recorder);
+                if (cache != null) {
+                    cache.put(module, fingerprint, result);
+                    cache.save();
                 }
-                System.out.println("");
+            }
+
+            recorder.stopJar(module.getPath(), start);
+
+            long reportStart = recorder.start();
+            ReportWriter reportWriter = Reports.open(reportFormats,
+                    reportDirectory, name, plugin.getVersion());
+            if (reportWriter != null) {
+                try {
+                    reportWriter.write(module.getPath(), result);
+                } finally {
+                    reportWriter.close();
+                }
+            }
+            recorder.stop(Metrics.REPORT, reportStart);
+            MetricsReport.report(recorder, getLog(), metrics, metricsFile);
+
+            List<String> report = SpecReport.lines(result);
+            if (!report.isEmpty()) {
+                SpecReport.print(report);
                 if (!ignoreErrors) {
                     throw new MojoFailureException("spec verification failed.");
                 }
             }
         } catch (IOException ex) {
             throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
         }
     }
 }
@@ -0,0 +1,493 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.JarPool;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metrics;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.VerificationResult;
+import org.glassfish.spec.report.ReportWriter;
+import org.glassfish.spec.report.Reports;
+
+/**
+ *
+ * Maven Goal to enforce spec rules on all the modules of the reactor.
+ * Each execution records the module artifact and its spec configuration,
+ * the last execution of the reactor verifies all the recorded modules in
+ * parallel and prints a single report.
+ * The module, spec, {@code checkPackages} and {@code ignoreErrors}
+ * parameters are recorded per module, the other parameters are taken from
+ * the elected execution.
+ * @author Romain Grecourt
+ */
+@Mojo(name = "check-modules",
+      requiresProject = true,
+      defaultPhase = LifecyclePhase.PACKAGE,
+      threadSafe = true)
+public final class CheckModulesMojo extends AbstractMojo {
+
+    /**
+     * Plugin context key of the recorded module file.
+     */
+    private static final String MODULE_KEY = "spec-version.module";
+
+    /**
+     * Plugin context key of the recorded module spec.
+     */
+    private static final String SPEC_KEY = "spec-version.spec";
+
+    /**
+     * Plugin context key of the recorded module {@code ignoreErrors} flag.
+     */
+    private static final String IGNORE_ERRORS_KEY =
+            "spec-version.ignoreErrors";
+
+    /**
+     * Plugin context key of the recorded module {@code checkPackages} flag.
+     */
+    private static final String CHECK_PACKAGES_KEY =
+            "spec-version.checkPackages";
+
+    /**
+     * Plugin context key set once a project has been recorded.
+     */
+    private static final String RECORDED_KEY = "spec-version.recorded";
+
+    /**
+     * Plugin context key set once the modules have been verified.
+     */
+    private static final String VERIFIED_KEY = "spec-version.verified";
+
+    /**
+     * The goal name.
+     */
+    private static final String GOAL = "check-modules";
+
+    /**
+     * Guards the plugin contexts of the reactor projects, the projects can
+     * be built concurrently.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * The maven project.
+     */
+    @Parameter(defaultValue = "${project}", required = true, readonly = true)
+    private MavenProject project;
+
+    /**
+     * The maven session.
+     */
+    @Parameter(defaultValue = "${session}", required = true, readonly = true)
+    private MavenSession session;
+
+    /**
+     * The projects of the reactor.
+     */
+    @Parameter(defaultValue = "${reactorProjects}", required = true,
+            readonly = true)
+    private List<MavenProject> reactorProjects;
+
+    /**
+     * Module to verify.
+     */
+    @Parameter(property = "module")
+    private File module;
+
+    /**
+     * Ignore failures of the module.
+     */
+    @Parameter(property = "ignoreErrors", defaultValue = "false")
+    private boolean ignoreErrors;
+
+    /**
+     * Mode. Allowed values are "javaee", "jakarta"
+     */
+    @Parameter(property = "specMode", defaultValue = "javaee")
+    private String specMode;
+
+    /**
+     * Spec.
+     */
+    @Parameter(property = "spec")
+    private Spec spec;
+
+    /**
+     * Verify that the classes of the module are in the API package, the
+     * implementation namespace or the allowed packages.
+     */
+    @Parameter(property = "checkPackages", defaultValue = "false")
+    private boolean checkPackages;
+
+    /**
+     * Number of threads used to verify the modules.
+     * {@code 0} (the default) uses one thread per available processor.
+     * The value of the execution that verifies the modules is used, i.e.
+     * the last recorded module of the reactor.
+     */
+    @Parameter(property = "threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Maximum number of JAR files open at the same time.
+     */
+    @Parameter(property = "maxOpenJars", defaultValue = "64")
+    private int maxOpenJars;
+
+    /**
+     * Comma separated list of machine readable report formats to write.
+     * Supported formats are {@code jsonl}, {@code junit} and {@code sarif}.
+     */
+    @Parameter(property = "reportFormats")
+    private String reportFormats;
+
+    /**
+     * The directory where the machine readable reports are written.
+     */
+    @Parameter(property = "reportDirectory",
+            defaultValue = "${project.build.directory}/spec-version-reports")
+    private File reportDirectory;
+
+    /**
+     * Log the time spent per phase and per rule, and the slowest artifacts.
+     */
+    @Parameter(property = "metrics", defaultValue = "false")
+    private boolean metrics;
+
+    /**
+     * File where the metrics are written, as {@code name=value} lines.
+     */
+    @Parameter(property = "metricsFile")
+    private File metricsFile;
+
+    /**
+     * The plugin descriptor.
+     */
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
+
+    /**
+     * The mojo execution.
+     */
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    private MojoExecution mojoExecution;
+
+    /**
+     * A module recorded for verification.
+     */
+    private static final class Module {
+
+        /**
+         * The module artifact file.
+         */
+        private final File file;
+
+        /**
+         * The module spec configuration.
+         */
+        private final Spec spec;
+
+        /**
+         * {@code true} if the failures of the module are ignored.
+         */
+        private final boolean ignoreErrors;
+
+        /**
+         * {@code true} if the packages of the classes are verified.
+         */
+        private final boolean checkPackages;
+
+        /**
+         * Create a new {@link Module} instance.
+         * @param moduleFile the module artifact file
+         * @param moduleSpec the module spec configuration
+         * @param ignore {@code true} to ignore the failures of the module
+         * @param packages {@code true} to verify the class packages
+         */
+        Module(final File moduleFile, final Spec moduleSpec,
+                final boolean ignore, final boolean packages) {
+
+            this.file = moduleFile;
+            this.spec = moduleSpec;
+            this.ignoreErrors = ignore;
+            this.checkPackages = packages;
+        }
+    }
+
+    /**
+     * Record the module of the current project.
+     */
+    @SuppressWarnings("unchecked")
+    private void record() {
+        if (module == null || !module.exists()) {
+            module = project.getArtifact().getFile();
+        }
+        if (module == null || !module.isFile()) {
+            getLog().debug("no module to verify for " + project.getId());
+            return;
+        }
+        if (spec == null) {
+            spec = new Spec();
+        }
+        spec.setGroupIdPrefix(specMode.equals("jakarta")
+                ? Spec.JAKARTA_GROUP_ID : Spec.JAVAX_GROUP_ID);
+        spec.setArtifact(new Artifact(
+                project.getGroupId(),
+                project.getArtifactId(),
+                project.getVersion()));
+        Map<String, Object> context = getPluginContext();
+        context.put(MODULE_KEY, module);
+        context.put(SPEC_KEY, spec);
+        context.put(IGNORE_ERRORS_KEY, ignoreErrors);
+        context.put(CHECK_PACKAGES_KEY, checkPackages);
+    }
+
+    /**
+     * Test if the given project executes this goal.
+     * @param p the project
+     * @return {@code true} if the goal is invoked from the command line or
+     * bound to the build of the project
+     */
+    private boolean isCheckedProject(final MavenProject p) {
+        for (String goal : session.getGoals()) {
+            if (goal.endsWith(":" + GOAL)) {
+                return true;
+            }
+        }
+        Plugin build = p.getPlugin(plugin.getPluginLookupKey());
+        if (build != null) {
+            for (PluginExecution execution : build.getExecutions()) {
+                if (execution.getGoals().contains(GOAL)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record the current project and test if all the checked projects of
+     * the reactor have been recorded.
+     * @return {@code true} if this execution must verify the modules
+     */
+    @SuppressWarnings("unchecked")
+    private boolean recordAndElect() {
+        synchronized (LOCK) {
+            record();
+            getPluginContext().put(RECORDED_KEY, Boolean.TRUE);
+            for (MavenProject p : reactorProjects) {
+                if (isCheckedProject(p) && !session.getPluginContext(plugin, p)
+                        .containsKey(RECORDED_KEY)) {
+                    return false;
+                }
+            }
+            Map<String, Object> first = session.getPluginContext(plugin,
+                    reactorProjects.get(0));
+            return first.put(VERIFIED_KEY, Boolean.TRUE) == null;
+        }
+    }
+
+    /**
+     * Collect the modules recorded by the projects of the reactor.
+     * @return the recorded modules, in the reactor order
+     */
+    @SuppressWarnings("unchecked")
+    private List<Module> collect() {
+        List<Module> modules = new ArrayList<Module>();
+        for (MavenProject p : reactorProjects) {
+            Map<String, Object> context = session.getPluginContext(plugin, p);
+            File file = (File) context.get(MODULE_KEY);
+            Spec s = (Spec) context.get(SPEC_KEY);
+            if (file != null && s != null) {
+                modules.add(new Module(file, s,
+                        Boolean.TRUE.equals(context.get(IGNORE_ERRORS_KEY)),
+                        Boolean.TRUE.equals(
+                                context.get(CHECK_PACKAGES_KEY))));
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * Verify a module.
+     * @param m the module to verify
+     * @param pool the pool of open JAR files
+     * @param recorder the metrics recorder
+     * @return the verification result
+     * @throws IOException if an error occurs while reading the module
+     */
+    private static VerificationResult verify(final Module m,
+            final JarPool pool, final Metrics recorder) throws IOException {
+
+        long start = recorder.start();
+        try {
+            JarScanner.Contents contents =
+                    JarScanner.scan(m.file, pool, recorder);
+            return m.spec.verify(contents.getMetadata(),
+                    m.checkPackages ? contents.getPackageIndex() : null,
+                    recorder);
+        } finally {
+            recorder.stopJar(m.file.getPath(), start);
+        }
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (!recordAndElect()) {
+            return;
+        }
+
+        final Metrics recorder = MetricsReport.create(metrics, metricsFile);
+        final JarPool pool = new JarPool(maxOpenJars);
+        List<Module> modules;
+        synchronized (LOCK) {
+            modules = collect();
+        }
+        ReportWriter reportWriter;
+        try {
+            reportWriter = Reports.open(reportFormats, reportDirectory,
+                    mojoExecution.getGoal() + "-"
+                    + mojoExecution.getExecutionId(),
+                    plugin.getVersion());
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (IllegalArgumentException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+
+        List<String> failed = new ArrayList<String>();
+        int ignored = 0;
+        int nThreads = threads > 0
+                ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            List<Future<VerificationResult>> results =
+                    new ArrayList<Future<VerificationResult>>(modules.size());
+            for (final Module m : modules) {
+                results.add(executor.submit(
+                        new Callable<VerificationResult>() {
+                    @Override
+                    public VerificationResult call() throws IOException {
+                        return verify(m, pool, recorder);
+                    }
+                }));
+            }
+
+            // report the results in the order of the reactor
+            for (int i = 0; i < results.size(); i++) {
+                VerificationResult result = results.get(i).get();
+                long reportStart = recorder.start();
+                SpecReport.print(SpecReport.lines(result));
+                if (reportWriter != null) {
+                    reportWriter.write(modules.get(i).file.getPath(), result);
+                }
+                recorder.stop(Metrics.REPORT, reportStart);
+                if (!result.isSuccess()) {
+                    if (modules.get(i).ignoreErrors) {
+                        ignored++;
+                        getLog().warn("spec verification failed (ignored): "
+                                + result.getArtifact());
+                    } else {
+                        failed.add(result.getArtifact().toString());
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MojoExecutionException(cause.getMessage(), cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } finally {
+            executor.shutdownNow();
+            if (reportWriter != null) {
+                try {
+                    reportWriter.close();
+                } catch (IOException ex) {
+                    getLog().warn("unable to write the report: "
+                            + ex.getMessage());
+                }
+            }
+        }
+        MetricsReport.report(recorder, getLog(), metrics, metricsFile);
+
+        getLog().info(String.format(
+                "%d module(s) verified, %d failed, %d ignored",
+                modules.size(), failed.size(), ignored));
+        if (!failed.isEmpty()) {
+            for (String artifact : failed) {
+                getLog().error("spec verification failed: " + artifact);
+            }
+            throw new MojoFailureException(String.format(
+                    "spec verification failed for %d module(s)",
+                    failed.size()));
+        }
+    }
+}
@@ -45,8 +45,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.jar.JarFile;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -54,8 +61,11 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.glassfish.spec.Artifact;
+import org.glassfish.spec.JarScanner;
 import org.glassfish.spec.Spec;
 import org.glassfish.spec.Spec.JarType;
+import org.glassfish.spec.cli.SpecBatch;
+import org.glassfish.spec.cli.SpecVerifier;
 
 /**
  * Maven Goal to run spec verifications from the command line.
@@ -64,7 +74,8 @@ import org.glassfish.spec.Spec.JarType;
  */
 @Mojo(name = "cli",
       requiresProject = true,
-      defaultPhase = LifecyclePhase.VALIDATE)
+      defaultPhase = LifecyclePhase.VALIDATE,
+      threadSafe = true)
 public final class CommandLineMojo extends AbstractMojo {
 
     /**
@@ -157,6 +168,22 @@ public final class CommandLineMojo extends AbstractMojo {
     @Parameter(property = "properties")
     private File properties;
 
+    /**
+     * Property files to verify in one invocation, in parallel: a directory,
+     * a glob pattern, or a manifest file with the keys prefixed by the spec
+     * name, see {@link org.glassfish.spec.cli.SpecBatch}.
+     * The build fails if a verification reports errors.
+     */
+    @Parameter(property = "batch")
+    private String batch;
+
+    /**
+     * The number of threads used to verify the specs in batch mode,
+     * defaults to the number of processors.
+     */
+    @Parameter(property = "threads", defaultValue = "0")
+    private int threads;
+
     /**
      * Show the usage.
      */
@@ -166,14 +193,14 @@ public final class CommandLineMojo extends AbstractMojo {
     /**
      * The system console.
      */
-    private static Console cons;
+    private Console cons;
 
     /**
      * Prompt with the string and return the user's input.
      * @param msg the prompt message
      * @return the user input
      */
-    private static String prompt(final String msg) {
+    private String prompt(final String msg) {
         if (cons == null) {
             return null;
         }
@@ -203,13 +230,77 @@ public final class CommandLineMojo extends AbstractMojo {
         System.out.println(sb.append(arg).append(' ').append(desc).toString());
     }
 
+    /**
+     * Verify the specs of the batch input in parallel.
+     * @throws MojoExecutionException if an error occurs while reading the
+     * input
+     * @throws MojoFailureException if a verification reported errors
+     */
+    private void verifyBatch()
+            throws MojoExecutionException, MojoFailureException {
+
+        Map<String, Properties> specs;
+        try {
+            specs = SpecBatch.load(batch, null);
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+        if (specs.isEmpty()) {
+            throw new MojoFailureException("No property file found: " + batch);
+        }
+
+        final SpecVerifier verifier = new SpecVerifier();
+        int nThreads = threads > 0
+                ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        int failed = 0;
+        try {
+            Map<String, Future<List<String>>> results =
+                    new LinkedHashMap<String, Future<List<String>>>();
+            for (Map.Entry<String, Properties> spec : specs.entrySet()) {
+                final Properties props = spec.getValue();
+                results.put(spec.getKey(), executor.submit(
+                        new Callable<List<String>>() {
+                            @Override
+                            public List<String> call() {
+                                return verifier.verify(props);
+                            }
+                        }));
+            }
+            for (Map.Entry<String, Future<List<String>>> result
+                    : results.entrySet()) {
+                List<String> errors = result.getValue().get();
+                for (String error : errors) {
+                    System.out.println(result.getKey() + ": " + error);
+                }
+                if (!errors.isEmpty()) {
+                    failed++;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        } catch (ExecutionException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String summary = String.format("%d spec(s) verified, %d failed",
+                specs.size(), failed);
+        getLog().info(summary);
+        if (failed > 0) {
+            throw new MojoFailureException(summary);
+        }
+    }
+
     @Override
     @SuppressWarnings({
         "checkstyle:LineLength",
         "checkstyle:MethodLength"
     })
     public void execute() throws MojoExecutionException, MojoFailureException {
-        if (help) {
+        if (Boolean.TRUE.equals(help)) {
             printParam("properties", "file\tread settings from property file");
             printParam("nonfinal", "\t\tnon-final specification");
             printParam("standalone", "\t\tAPI has a standalone implementation");
@@ -225,6 +316,12 @@ public final class CommandLineMojo extends AbstractMojo {
             printParam("newimplversion", "vers\tversion number of the implementation when final");
             printParam("implbuild", "num\tbuild number of implementation jar file");
             printParam("specMode", "specMode\t'javaee' or 'jakarta'");
+            printParam("batch", "dir|glob\tverify many property files");
+            return;
+        }
+
+        if (batch != null) {
+            verifyBatch();
             return;
         }
 
@@ -246,13 +343,13 @@ public final class CommandLineMojo extends AbstractMojo {
                     specBuild = p.getProperty("SPEC_BUILD", specBuild);
                     newSpecVersion = p.getProperty("NEW_SPEC_VERSION", newSpecVersion);
                     apiJar = p.getProperty("API_JAR", apiJar);
-                    artifact = Artifact.fromJar(new JarFile(apiJar));
+                    artifact = JarScanner.scan(new File(apiJar)).getArtifact();
                 } else {
                     implVersion = p.getProperty("IMPL_VERSION", implVersion);
                     implBuild = p.getProperty("IMPL_BUILD", implBuild);
                     newImplVersion = p.getProperty("NEW_IMPL_VERSION", newImplVersion);
                     implJar = p.getProperty("IMPL_JAR", implJar);
-                    artifact = Artifact.fromJar(new JarFile(implJar));
+                    artifact = JarScanner.scan(new File(implJar)).getArtifact();
                 }
                 specVersion = p.getProperty("SPEC_VERSION", specVersion);
                 // really, any of the above 4
@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.glassfish.spec.daemon.VerificationDaemon;
+
+/**
+ * Maven Goal to start a local verification daemon for the command line
+ * verifications, see {@code checkVersion.sh}.
+ *
+ * @author Romain Grecourt
+ */
+@Mojo(name = "daemon",
+      requiresProject = false,
+      threadSafe = true)
+public final class DaemonMojo extends AbstractMojo {
+
+    /**
+     * The port to listen on, the daemon only accepts local connections.
+     */
+    @Parameter(property = "daemon.port", defaultValue = "7777")
+    private int port;
+
+    /**
+     * The number of minutes without request after which the daemon stops,
+     * {@code 0} to never stop.
+     */
+    @Parameter(property = "daemon.idleTimeout", defaultValue = "60")
+    private int idleTimeout;
+
+    /**
+     * The file where the request token is written, only readable by the
+     * current user. Defaults to {@code ~/.spec-version-daemon-<port>.token}.
+     */
+    @Parameter(property = "daemon.tokenFile")
+    private File tokenFile;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        try {
+            VerificationDaemon daemon = new VerificationDaemon(port,
+                    (int) TimeUnit.MINUTES.toMillis(idleTimeout));
+            File file = tokenFile;
+            if (file == null) {
+                file = new File(System.getProperty("user.home"),
+                        ".spec-version-daemon-" + daemon.getPort()
+                        + ".token");
+            }
+            try {
+                daemon.writeToken(file);
+                getLog().info(String.format(
+                        "Listening on localhost:%d, export SPEC_DAEMON_PORT=%d"
+                        + " to use it from checkVersion.sh",
+                        daemon.getPort(), daemon.getPort()));
+                daemon.run();
+            } finally {
+                daemon.close();
+                if (!file.delete()) {
+                    getLog().warn("unable to delete " + file);
+                }
+            }
+            getLog().info("Daemon stopped");
+        } catch (IOException ex) {
+            throw new MojoExecutionException(ex.getMessage(), ex);
+        }
+    }
+}
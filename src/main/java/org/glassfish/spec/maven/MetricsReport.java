@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.maven;
+
+import java.io.File;
+import java.io.IOException;
+import org.apache.maven.plugin.logging.Log;
+import org.glassfish.spec.Metrics;
+import org.glassfish.spec.Tracer;
+
+/**
+ * Metrics output utility.
+ *
+ * @author Romain Grecourt
+ */
+final class MetricsReport {
+
+    /**
+     * Cannot be instantiated.
+     */
+    private MetricsReport() {
+    }
+
+    /**
+     * The Java Flight Recorder tracer, {@code null} if not available.
+     */
+    private static final Tracer TRACER = Metrics.jfrTracer();
+
+    /**
+     * Create the metrics instance for a mojo execution.
+     * The Java Flight Recorder events are forwarded whenever available, the
+     * timers and counters are only recorded if they are reported.
+     * @param summary {@code true} if the summary is logged
+     * @param file the metrics file, may be {@code null}
+     * @return an enabled instance if a summary or a file is requested,
+     * a tracing instance if the Java Flight Recorder events are available,
+     * {@link Metrics#DISABLED} otherwise
+     */
+    static Metrics create(final boolean summary, final File file) {
+        if (summary || file != null) {
+            return new Metrics(TRACER);
+        }
+        return Metrics.tracing(TRACER);
+    }
+
+    /**
+     * Log the summary and write the metrics file.
+     * @param metrics the recorded metrics
+     * @param log the log
+     * @param summary {@code true} to log the summary
+     * @param file the metrics file, may be {@code null}
+     */
+    static void report(final Metrics metrics, final Log log,
+            final boolean summary, final File file) {
+
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        if (summary) {
+            log.info("-- spec-version metrics --");
+            for (String line : metrics.summary()) {
+                log.info(line);
+            }
+        }
+        if (file != null) {
+            try {
+                metrics.write(file);
+            } catch (IOException ex) {
+                log.warn("unable to write the metrics file: "
+                        + ex.getMessage());
+            }
+        }
+    }
+}
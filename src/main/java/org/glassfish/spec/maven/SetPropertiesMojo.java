@@ -59,7 +59,8 @@ import org.glassfish.spec.Spec;
  */
 @Mojo(name = "set-spec-properties",
       requiresProject = true,
-      defaultPhase = LifecyclePhase.VALIDATE)
+      defaultPhase = LifecyclePhase.VALIDATE,
+      threadSafe = true)
 public final class SetPropertiesMojo extends AbstractMojo {
 
     /**
@@ -0,0 +1,386 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.VerificationResult;
+
+/**
+ * On-disk cache of verification reports.
+ * Each entry maps a JAR file (size, SHA-256) and a configuration
+ * fingerprint to the result of the last verification. The content hash is
+ * checked on every lookup, the modification time is not trusted as a
+ * rewritten file can keep the same size and time stamp.
+ *
+ * @author Romain Grecourt
+ */
+final class VerificationCache {
+
+    /**
+     * Key suffix for the file size.
+     */
+    private static final String SIZE = ".size";
+
+    /**
+     * Key suffix for the file SHA-256 checksum.
+     */
+    private static final String SHA256 = ".sha256";
+
+    /**
+     * Key suffix for the configuration fingerprint.
+     */
+    private static final String FINGERPRINT = ".fingerprint";
+
+    /**
+     * Key suffix for the artifact groupId.
+     */
+    private static final String GROUP_ID = ".groupId";
+
+    /**
+     * Key suffix for the artifact artifactId.
+     */
+    private static final String ARTIFACT_ID = ".artifactId";
+
+    /**
+     * Key suffix for the artifact version.
+     */
+    private static final String VERSION = ".version";
+
+    /**
+     * Key suffix for the spec description.
+     */
+    private static final String SPEC = ".spec";
+
+    /**
+     * Key suffix for the errors.
+     */
+    private static final String ERRORS = ".errors";
+
+    /**
+     * All the key suffixes.
+     */
+    private static final String[] SUFFIXES = new String[]{
+        SIZE, SHA256, FINGERPRINT,
+        GROUP_ID, ARTIFACT_ID, VERSION, SPEC, ERRORS
+    };
+
+    /**
+     * Separator used to store the errors.
+     */
+    private static final String LINE_SEPARATOR = "\n";
+
+    /**
+     * Size of the buffer used to compute checksums.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Hexadecimal digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Identifies the build of the plugin, see {@link #buildId()}.
+     */
+    private static final String BUILD_ID = buildId();
+
+    /**
+     * The file backing this cache.
+     */
+    private final File file;
+
+    /**
+     * The cache entries.
+     */
+    private final Properties entries = new Properties();
+
+    /**
+     * The paths looked up or updated since this cache was loaded.
+     */
+    private final Set<String> touched =
+            Collections.synchronizedSet(new HashSet<String>());
+
+    /**
+     * Create a new {@link VerificationCache} instance.
+     * @param dir the cache directory
+     * @param name the cache name
+     */
+    VerificationCache(final File dir, final String name) {
+        this.file = new File(dir, name + ".properties");
+    }
+
+    /**
+     * Load the cache entries from disk, if the cache file exists.
+     * @throws IOException if an error occurs while reading the cache file
+     */
+    void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        InputStream is = new FileInputStream(file);
+        try {
+            entries.load(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Write the cache entries to disk.
+     * Only the entries looked up or updated since the cache was loaded are
+     * kept, entries for files that are gone are discarded.
+     * @throws IOException if an error occurs while writing the cache file
+     */
+    void save() throws IOException {
+        Properties props = new Properties();
+        synchronized (touched) {
+            for (String path : touched) {
+                for (String suffix : SUFFIXES) {
+                    String value = entries.getProperty(path + suffix);
+                    if (value != null) {
+                        props.setProperty(path + suffix, value);
+                    }
+                }
+            }
+        }
+        File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("unable to create directory " + dir);
+        }
+        File tmp = new File(dir, file.getName() + ".tmp");
+        OutputStream os = new FileOutputStream(tmp);
+        try {
+            props.store(os, "spec-version-maven-plugin verification cache");
+        } finally {
+            os.close();
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IOException("unable to delete " + file);
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("unable to rename " + tmp + " to " + file);
+        }
+    }
+
+    /**
+     * Get the cached result for the given file.
+     * @param jar the verified file
+     * @param fingerprint the configuration fingerprint
+     * @return the cached result, or {@code null} if the file or configuration
+     * changed since the result was cached
+     * @throws IOException if an error occurs while reading the file
+     */
+    VerificationResult get(final File jar, final String fingerprint)
+            throws IOException {
+
+        String path = jar.getAbsolutePath();
+        touched.add(path);
+        if (!fingerprint.equals(entries.getProperty(path + FINGERPRINT))
+                || !String.valueOf(jar.length())
+                        .equals(entries.getProperty(path + SIZE))) {
+            return null;
+        }
+        if (!sha256(jar).equals(entries.getProperty(path + SHA256))) {
+            return null;
+        }
+        String errors = entries.getProperty(path + ERRORS);
+        String version = entries.getProperty(path + VERSION);
+        if (errors == null || version == null) {
+            return null;
+        }
+        return new VerificationResult(
+                new Artifact(entries.getProperty(path + GROUP_ID),
+                        entries.getProperty(path + ARTIFACT_ID),
+                        version),
+                entries.getProperty(path + SPEC),
+                errors.isEmpty() ? Collections.<String>emptyList()
+                        : Arrays.asList(errors.split(LINE_SEPARATOR, -1)));
+    }
+
+    /**
+     * Cache the result for the given file.
+     * @param jar the verified file
+     * @param fingerprint the configuration fingerprint
+     * @param result the result to cache
+     * @throws IOException if an error occurs while reading the file
+     */
+    void put(final File jar, final String fingerprint,
+            final VerificationResult result) throws IOException {
+
+        String path = jar.getAbsolutePath();
+        List<String> errors = result.getErrors();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < errors.size(); i++) {
+            if (i > 0) {
+                sb.append(LINE_SEPARATOR);
+            }
+            sb.append(errors.get(i));
+        }
+        Artifact artifact = result.getArtifact();
+        touched.add(path);
+        entries.setProperty(path + SIZE, String.valueOf(jar.length()));
+        entries.setProperty(path + SHA256, sha256(jar));
+        entries.setProperty(path + FINGERPRINT, fingerprint);
+        entries.setProperty(path + GROUP_ID, artifact.getGroupId());
+        entries.setProperty(path + ARTIFACT_ID, artifact.getArtifactId());
+        entries.setProperty(path + VERSION, artifact.getVersion().toString());
+        entries.setProperty(path + SPEC, result.getSpecDescription());
+        entries.setProperty(path + ERRORS, sb.toString());
+    }
+
+    /**
+     * Identify the build of the plugin with the size and last modified time
+     * of the plugin JAR file. The plugin version alone does not change
+     * between snapshot builds, a rule change must invalidate the cached
+     * results.
+     * @return the build id, empty if the plugin is not loaded from a JAR
+     * file
+     */
+    private static String buildId() {
+        try {
+            CodeSource source = VerificationCache.class.getProtectionDomain()
+                    .getCodeSource();
+            URL location = source != null ? source.getLocation() : null;
+            if (location != null && "file".equals(location.getProtocol())) {
+                File jar = new File(location.toURI());
+                if (jar.isFile()) {
+                    return jar.length() + ":" + jar.lastModified();
+                }
+            }
+        } catch (URISyntaxException ex) {
+            // not identified
+        } catch (SecurityException ex) {
+            // not identified
+        }
+        return "";
+    }
+
+    /**
+     * Compute the fingerprint of a configuration for the current build of
+     * the plugin.
+     * @param pluginVersion the plugin version
+     * @param config the configuration to process
+     * @return the fingerprint as an hexadecimal string
+     */
+    static String fingerprint(final String pluginVersion,
+            final String config) {
+
+        return fingerprint(pluginVersion + '|' + BUILD_ID + '|' + config);
+    }
+
+    /**
+     * Compute the SHA-256 checksum of the given string.
+     * @param str the string to process
+     * @return the checksum as an hexadecimal string
+     */
+    static String fingerprint(final String str) {
+        try {
+            return hex(sha256().digest(str.getBytes("UTF-8")));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Compute the SHA-256 checksum of the given file.
+     * @param f the file to process
+     * @return the checksum as an hexadecimal string
+     * @throws IOException if an error occurs while reading the file
+     */
+    private static String sha256(final File f) throws IOException {
+        MessageDigest md = sha256();
+        InputStream is = new FileInputStream(f);
+        try {
+            byte[] buf = new byte[BUFFER_SIZE];
+            int len;
+            while ((len = is.read(buf)) > 0) {
+                md.update(buf, 0, len);
+            }
+        } finally {
+            is.close();
+        }
+        return hex(md.digest());
+    }
+
+    /**
+     * Create a new SHA-256 message digest.
+     * @return the message digest
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Convert the given bytes to an hexadecimal string.
+     * @param bytes the bytes to convert
+     * @return the hexadecimal string
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static String hex(final byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
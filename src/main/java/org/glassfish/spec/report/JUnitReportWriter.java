@@ -0,0 +1,218 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.report;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import org.glassfish.spec.VerificationResult;
+
+/**
+ * Write the verification results as a JUnit XML test suite, one test case
+ * per verified file.
+ * The test and failure counts are written as fixed width placeholders and
+ * updated when the writer is closed.
+ *
+ * @author Romain Grecourt
+ */
+public final class JUnitReportWriter implements ReportWriter {
+
+    /**
+     * The file encoding.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Width of the count attributes.
+     */
+    private static final int COUNT_WIDTH = 10;
+
+    /**
+     * Text between the tests and failures counts.
+     */
+    private static final String FAILURES_ATTR = "\" failures=\"";
+
+    /**
+     * The report file.
+     */
+    private final File file;
+
+    /**
+     * The underlying writer.
+     */
+    private final Writer out;
+
+    /**
+     * The offset of the tests count in the file.
+     */
+    private final long countOffset;
+
+    /**
+     * Number of test cases written.
+     */
+    private int tests;
+
+    /**
+     * Number of failed test cases written.
+     */
+    private int failures;
+
+    /**
+     * Create a new {@link JUnitReportWriter} instance.
+     * @param reportFile the file to write to
+     * @param suiteName the name of the test suite
+     * @throws IOException if an error occurs while writing the header
+     */
+    public JUnitReportWriter(final File reportFile, final String suiteName)
+            throws IOException {
+
+        this.file = reportFile;
+        String prefix = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<testsuite name=\"" + escape(suiteName) + "\" tests=\"";
+        this.countOffset = prefix.getBytes(UTF8).length;
+        this.out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(reportFile), UTF8));
+        out.write(prefix);
+        out.write(count(0));
+        out.write(FAILURES_ATTR);
+        out.write(count(0));
+        out.write("\" errors=\"0\" skipped=\"0\">\n");
+    }
+
+    @Override
+    public void write(final String source, final VerificationResult result)
+            throws IOException {
+
+        tests++;
+        out.write("  <testcase classname=\"");
+        out.write(escape(source));
+        out.write("\" name=\"");
+        out.write(escape(result.getArtifact().toString()));
+        if (result.isSuccess()) {
+            out.write("\"/>\n");
+        } else {
+            failures++;
+            out.write("\">\n    <failure message=\"");
+            out.write(escape(result.getErrors().get(0)));
+            out.write("\">");
+            String specDesc = result.getSpecDescription();
+            if (!specDesc.isEmpty()) {
+                out.write(escape(specDesc));
+                out.write('\n');
+            }
+            for (String error : result.getErrors()) {
+                out.write(escape(error));
+                out.write('\n');
+            }
+            out.write("</failure>\n  </testcase>\n");
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("</testsuite>\n");
+        } finally {
+            out.close();
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(countOffset);
+            raf.write((count(tests) + FAILURES_ATTR + count(failures))
+                    .getBytes(UTF8));
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Format a count attribute value.
+     * @param value the count
+     * @return the zero padded count
+     */
+    private static String count(final int value) {
+        StringBuilder sb = new StringBuilder(String.valueOf(value));
+        while (sb.length() < COUNT_WIDTH) {
+            sb.insert(0, '0');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escape a value for use in XML text or attributes.
+     * @param value the value to escape
+     * @return the escaped value
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    static String escape(final String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                default:
+                    if (c < 0x20 && c != '\n' && c != '\t' && c != '\r') {
+                        sb.append(' ');
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.VerificationResult;
+
+/**
+ * Write the verification results as JSON Lines, one object per verified file.
+ *
+ * @author Romain Grecourt
+ */
+public final class JsonLinesReportWriter implements ReportWriter {
+
+    /**
+     * The underlying writer.
+     */
+    private final Writer out;
+
+    /**
+     * Create a new {@link JsonLinesReportWriter} instance.
+     * @param writer the writer to write to
+     */
+    public JsonLinesReportWriter(final Writer writer) {
+        this.out = writer;
+    }
+
+    @Override
+    public void write(final String source, final VerificationResult result)
+            throws IOException {
+
+        Artifact artifact = result.getArtifact();
+        out.write("{\"file\":");
+        out.write(Json.quote(source));
+        out.write(",\"groupId\":");
+        out.write(Json.quote(artifact.getGroupId()));
+        out.write(",\"artifactId\":");
+        out.write(Json.quote(artifact.getArtifactId()));
+        out.write(",\"version\":");
+        out.write(Json.quote(String.valueOf(artifact.getVersion())));
+        out.write(",\"spec\":");
+        out.write(Json.quote(result.getSpecDescription()));
+        out.write(",\"success\":");
+        out.write(String.valueOf(result.isSuccess()));
+        out.write(",\"findings\":[");
+        boolean first = true;
+        for (String error : result.getErrors()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.write("{\"level\":");
+            out.write(Json.quote(Json.level(error)));
+            out.write(",\"message\":");
+            out.write(Json.quote(error));
+            out.write('}');
+        }
+        out.write("]}\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
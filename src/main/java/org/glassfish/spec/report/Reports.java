@@ -0,0 +1,216 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.report;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import org.glassfish.spec.VerificationResult;
+
+/**
+ * Report writers factory.
+ *
+ * @author Romain Grecourt
+ */
+public final class Reports {
+
+    /**
+     * JSON Lines format.
+     */
+    public static final String JSONL = "jsonl";
+
+    /**
+     * JUnit XML format.
+     */
+    public static final String JUNIT = "junit";
+
+    /**
+     * SARIF format.
+     */
+    public static final String SARIF = "sarif";
+
+    /**
+     * The name of the tool reported in the SARIF logs.
+     */
+    private static final String TOOL_NAME = "spec-version-maven-plugin";
+
+    /**
+     * Cannot be instantiated.
+     */
+    private Reports() {
+    }
+
+    /**
+     * Open the report writers for the given formats.
+     * The report files are created in the given directory as
+     * {@code <name>.jsonl}, {@code TEST-<name>.xml} and {@code <name>.sarif}.
+     * @param formats comma separated list of formats, may be {@code null}
+     * @param directory the directory where to create the report files
+     * @param name the base name of the report files
+     * @param toolVersion the version of the tool producing the reports
+     * @return a writer that writes to all the requested reports, or
+     * {@code null} if no format is requested
+     * @throws IOException if an error occurs while creating the reports
+     * @throws IllegalArgumentException if a format is not supported
+     */
+    public static ReportWriter open(final String formats, final File directory,
+            final String name, final String toolVersion) throws IOException {
+
+        if (formats == null || formats.trim().isEmpty()) {
+            return null;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("unable to create directory: " + directory);
+        }
+        List<ReportWriter> writers = new ArrayList<ReportWriter>();
+        try {
+            for (String format : formats.split(",")) {
+                String f = format.trim();
+                if (f.isEmpty()) {
+                    continue;
+                }
+                if (JSONL.equals(f)) {
+                    writers.add(new JsonLinesReportWriter(
+                            writer(new File(directory, name + ".jsonl"))));
+                } else if (JUNIT.equals(f)) {
+                    writers.add(new JUnitReportWriter(
+                            new File(directory, "TEST-" + name + ".xml"),
+                            name));
+                } else if (SARIF.equals(f)) {
+                    writers.add(new SarifReportWriter(
+                            writer(new File(directory, name + ".sarif")),
+                            TOOL_NAME, toolVersion));
+                } else {
+                    throw new IllegalArgumentException(
+                            "unsupported report format: " + f);
+                }
+            }
+        } catch (IOException ex) {
+            closeQuietly(writers);
+            throw ex;
+        } catch (RuntimeException ex) {
+            closeQuietly(writers);
+            throw ex;
+        }
+        if (writers.isEmpty()) {
+            return null;
+        }
+        if (writers.size() == 1) {
+            return writers.get(0);
+        }
+        return new CompositeWriter(writers);
+    }
+
+    /**
+     * Create a buffered UTF-8 writer for the given file.
+     * @param file the file to write to
+     * @return the created writer
+     * @throws IOException if an error occurs while opening the file
+     */
+    private static Writer writer(final File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+    }
+
+    /**
+     * Close the given writers, ignoring errors.
+     * @param writers the writers to close
+     */
+    private static void closeQuietly(final List<ReportWriter> writers) {
+        for (ReportWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException ex) {
+                // ignore, an error is already being reported
+            }
+        }
+    }
+
+    /**
+     * A report writer that writes to several report writers.
+     */
+    private static final class CompositeWriter implements ReportWriter {
+
+        /**
+         * The writers.
+         */
+        private final List<ReportWriter> writers;
+
+        /**
+         * Create a new {@link CompositeWriter} instance.
+         * @param delegates the writers to write to
+         */
+        CompositeWriter(final List<ReportWriter> delegates) {
+            this.writers = delegates;
+        }
+
+        @Override
+        public void write(final String source,
+                final VerificationResult result) throws IOException {
+
+            for (ReportWriter writer : writers) {
+                writer.write(source, result);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException error = null;
+            for (ReportWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException ex) {
+                    if (error == null) {
+                        error = ex;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
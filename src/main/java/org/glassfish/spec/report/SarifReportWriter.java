@@ -0,0 +1,153 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import org.glassfish.spec.VerificationResult;
+
+/**
+ * Write the verification results as a SARIF 2.1.0 log.
+ * Each finding is written as a result located in the verified file.
+ * Absolute paths are written as {@code file} URIs, relative paths as
+ * relative URI references against the {@code %SRCROOT%} base.
+ *
+ * @author Romain Grecourt
+ */
+public final class SarifReportWriter implements ReportWriter {
+
+    /**
+     * The SARIF schema.
+     */
+    private static final String SCHEMA =
+            "https://json.schemastore.org/sarif-2.1.0.json";
+
+    /**
+     * The base id of the relative artifact locations.
+     */
+    private static final String SRCROOT = "%SRCROOT%";
+
+    /**
+     * The underlying writer.
+     */
+    private final Writer out;
+
+    /**
+     * {@code true} until the first result is written.
+     */
+    private boolean first = true;
+
+    /**
+     * Create a new {@link SarifReportWriter} instance.
+     * @param writer the writer to write to
+     * @param toolName the name of the tool producing the log
+     * @param toolVersion the version of the tool producing the log
+     * @throws IOException if an error occurs while writing the header
+     */
+    public SarifReportWriter(final Writer writer, final String toolName,
+            final String toolVersion) throws IOException {
+
+        this.out = writer;
+        out.write("{\"$schema\":");
+        out.write(Json.quote(SCHEMA));
+        out.write(",\"version\":\"2.1.0\",\"runs\":[{\"tool\":{\"driver\":{");
+        out.write("\"name\":");
+        out.write(Json.quote(toolName));
+        if (toolVersion != null) {
+            out.write(",\"version\":");
+            out.write(Json.quote(toolVersion));
+        }
+        out.write("}},\"results\":[\n");
+    }
+
+    @Override
+    public void write(final String source, final VerificationResult result)
+            throws IOException {
+
+        String uri = null;
+        boolean relative = false;
+        File file = new File(source);
+        if (!file.isAbsolute()) {
+            try {
+                uri = new URI(null, null,
+                        source.replace(File.separatorChar, '/'), null)
+                        .toASCIIString();
+                relative = true;
+            } catch (URISyntaxException ex) {
+                // resolved against the working directory below
+            }
+        }
+        if (uri == null) {
+            uri = file.toURI().toASCIIString();
+        }
+        for (String error : result.getErrors()) {
+            if (!first) {
+                out.write(",\n");
+            }
+            first = false;
+            out.write("{\"level\":");
+            out.write(Json.quote(Json.level(error)));
+            out.write(",\"message\":{\"text\":");
+            out.write(Json.quote(result.getArtifact() + ": " + error));
+            out.write("},\"locations\":[{\"physicalLocation\":");
+            out.write("{\"artifactLocation\":{\"uri\":");
+            out.write(Json.quote(uri));
+            if (relative) {
+                out.write(",\"uriBaseId\":");
+                out.write(Json.quote(SRCROOT));
+            }
+            out.write("}}}]}");
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write("\n]}]}\n");
+        } finally {
+            out.close();
+        }
+    }
+}
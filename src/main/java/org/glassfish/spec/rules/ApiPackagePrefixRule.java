@@ -0,0 +1,95 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.rules;
+
+import java.util.List;
+import org.glassfish.spec.Spec;
+
+/**
+ * Verify that the API package starts with the given prefix.
+ *
+ * @author Romain Grecourt
+ */
+public final class ApiPackagePrefixRule implements Rule {
+
+    /**
+     * The rule name.
+     */
+    public static final String NAME = "api-package-prefix";
+
+    /**
+     * The required prefix.
+     */
+    private final String prefix;
+
+    /**
+     * The groupId prefix, used in the error message.
+     */
+    private final String groupIdPrefix;
+
+    /**
+     * Create a new {@link ApiPackagePrefixRule} instance.
+     * @param requiredPrefix the prefix the API package must start with
+     * @param gIdPrefix the groupId prefix
+     */
+    public ApiPackagePrefixRule(final String requiredPrefix,
+            final String gIdPrefix) {
+
+        this.prefix = requiredPrefix;
+        this.groupIdPrefix = gIdPrefix;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean verify(final Spec spec, final List<String> errors) {
+        if (!spec.getApiPackage().startsWith(prefix)) {
+            errors.add(String.format(
+                    "WARNING: API packages (%s) must start with \"%s\"",
+                    spec.getApiPackage(),
+                    groupIdPrefix));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.rules;
+
+import java.util.List;
+import java.util.Map;
+import org.glassfish.spec.Metadata;
+import org.glassfish.spec.Spec;
+
+/**
+ * Verify the bundle spec version, i.e. the version of the API package in the
+ * {@code Export-Package} manifest entry.
+ * For final specs it must be equal to the spec version, for non final specs
+ * it must be {@code <spec-version>.99.b<build>}.
+ * The rule is skipped for JAR files that do not export packages.
+ *
+ * @author Romain Grecourt
+ */
+public final class BundleSpecVersionRule implements Rule {
+
+    /**
+     * The rule name.
+     */
+    public static final String NAME = "bundle-spec-version";
+
+    /**
+     * The non final flag.
+     */
+    private final boolean nonFinal;
+
+    /**
+     * Create a new {@link BundleSpecVersionRule} instance.
+     * @param nfinal {@code true} for non final specs
+     */
+    public BundleSpecVersionRule(final boolean nfinal) {
+        this.nonFinal = nfinal;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean verify(final Spec spec, final List<String> errors) {
+        Metadata metadata = spec.getMetadata();
+        Map<String, String> exports = metadata.getExportedPackages();
+        String actual;
+        if (exports.isEmpty()) {
+            actual = metadata.getBundleSpecVersion();
+            if (actual.isEmpty()) {
+                // not an OSGi bundle
+                return true;
+            }
+        } else {
+            actual = exports.get(spec.getApiPackage());
+            if (actual == null) {
+                errors.add(String.format(
+                        "WARNING: %s does not include %s",
+                        Metadata.EXPORT_PACKAGE,
+                        spec.getApiPackage()));
+                return true;
+            }
+        }
+
+        String expected = spec.getSpecVersion();
+        if (nonFinal) {
+            expected = expected + Spec.NONFINAL_BUILD_SEPARATOR
+                    + (spec.getJarType().equals(Spec.JarType.impl)
+                    ? spec.getImplBuild() : spec.getSpecBuild());
+        }
+        if (!sameVersion(actual, expected)) {
+            errors.add(String.format(
+                    "WARNING: %s (%s) should be %s",
+                    Metadata.BUNDLE_SPEC_VERSION,
+                    actual,
+                    expected));
+        }
+        return true;
+    }
+
+    /**
+     * Compare two OSGi versions, the missing minor and micro numbers are
+     * equal to {@code 0}.
+     * @param v1 the first version
+     * @param v2 the second version
+     * @return {@code true} if the versions are equal
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static boolean sameVersion(final String v1, final String v2) {
+        String[] s1 = v1.trim().split("\\.", 4);
+        String[] s2 = v2.trim().split("\\.", 4);
+        for (int i = 0; i < 4; i++) {
+            String d = i < 3 ? "0" : "";
+            String p1 = i < s1.length ? s1[i] : d;
+            String p2 = i < s2.length ? s2[i] : d;
+            if (!p1.equals(p2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
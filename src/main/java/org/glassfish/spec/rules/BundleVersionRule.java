@@ -0,0 +1,104 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.rules;
+
+import java.util.List;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.glassfish.spec.Metadata;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.Versions;
+
+/**
+ * Verify the {@code Bundle-Version} manifest entry.
+ * For final specs it must be equal to the Maven version, for non final specs
+ * it must be {@code <major>.<minor>.99.b<build>}.
+ *
+ * @author Romain Grecourt
+ */
+public final class BundleVersionRule implements Rule {
+
+    /**
+     * The rule name.
+     */
+    public static final String NAME = "bundle-version";
+
+    /**
+     * The non final flag.
+     */
+    private final boolean nonFinal;
+
+    /**
+     * Create a new {@link BundleVersionRule} instance.
+     * @param nfinal {@code true} for non final specs
+     */
+    public BundleVersionRule(final boolean nfinal) {
+        this.nonFinal = nfinal;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean verify(final Spec spec, final List<String> errors) {
+        String bundleVersion;
+        if (!nonFinal) {
+            bundleVersion = spec.getArtifact().getAbsoluteVersion();
+        } else {
+            ArtifactVersion av = Versions.parse(spec.getSpecVersion());
+            bundleVersion = av.getMajorVersion()
+                    + "."
+                    + av.getMinorVersion()
+                    + Spec.NONFINAL_BUILD_SEPARATOR
+                    + (spec.getJarType().equals(Spec.JarType.impl)
+                    ? spec.getImplBuild() : spec.getSpecBuild());
+        }
+        if (!spec.getMetadata().getBundleVersion().equals(bundleVersion)) {
+            errors.add(String.format(
+                    "WARNING: %s (%s) should be %s",
+                    Metadata.BUNDLE_VERSION,
+                    spec.getMetadata().getBundleVersion(),
+                    bundleVersion));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.glassfish.spec.PackageIndex;
+import org.glassfish.spec.PackageMatcher;
+import org.glassfish.spec.Spec;
+
+/**
+ * Verify that the classes inside the JAR file are in the API package, in
+ * the implementation namespace for standalone implementation JAR files, or
+ * in one of the additional allowed packages, and not in an excluded package.
+ * The rule is skipped if the spec was not read from a JAR file.
+ *
+ * @author Romain Grecourt
+ */
+public final class ClassPackagesRule implements Rule {
+
+    /**
+     * The rule name.
+     */
+    public static final String NAME = "class-packages";
+
+    /**
+     * The JAR type.
+     */
+    private final Spec.JarType jarType;
+
+    /**
+     * Create a new {@link ClassPackagesRule} instance.
+     * @param type the JAR type
+     */
+    public ClassPackagesRule(final Spec.JarType type) {
+        this.jarType = type;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean verify(final Spec spec, final List<String> errors) {
+        PackageIndex index = spec.getPackageIndex();
+        if (index == null) {
+            return true;
+        }
+        List<String> includes = new ArrayList<String>();
+        includes.add(spec.getApiPackage());
+        if (!jarType.equals(Spec.JarType.api)) {
+            includes.add(spec.getImplNamespace());
+        }
+        includes.addAll(spec.getAllowedPackages());
+        PackageMatcher allowed = PackageMatcher.compile(includes,
+                spec.getExcludedPackages());
+
+        for (Map.Entry<String, Boolean> pkg
+                : index.classify(allowed).entrySet()) {
+            if (pkg.getValue()) {
+                continue;
+            }
+
+            // not in an allowed package
+            String name = pkg.getKey();
+            if (name.startsWith(spec.getGroupIdPrefix())) {
+                errors.add(String.format(
+                    "ERROR: jar file includes class in wrong package (%s)",
+                    name));
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.rules;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.glassfish.spec.Metrics;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.Tracer;
+
+/**
+ * A compiled, flat list of rules for a given kind of spec.
+ * Plans are compiled once per combination of JAR type, final flag, groupId
+ * prefix, disabled rules and custom rules.
+ *
+ * @author Romain Grecourt
+ */
+public final class RulePlan {
+
+    /**
+     * The compiled plans.
+     */
+    private static final ConcurrentMap<String, RulePlan> PLANS =
+            new ConcurrentHashMap<String, RulePlan>();
+
+    /**
+     * The rules to evaluate, in order.
+     */
+    private final Rule[] rules;
+
+    /**
+     * Create a new {@link RulePlan} instance.
+     * @param planRules the rules to evaluate, in order
+     */
+    private RulePlan(final List<Rule> planRules) {
+        this.rules = planRules.toArray(new Rule[planRules.size()]);
+    }
+
+    /**
+     * Get the plan for the given spec.
+     * @param spec the spec to verify
+     * @return the plan
+     */
+    public static RulePlan get(final Spec spec) {
+        String key = new StringBuilder()
+                .append(spec.getJarType()).append('|')
+                .append(spec.isNonFinal()).append('|')
+                .append(spec.getGroupIdPrefix()).append('|')
+                .append(spec.getDisabledRules()).append('|')
+                .append(spec.getRules())
+                .toString();
+        RulePlan plan = PLANS.get(key);
+        if (plan == null) {
+            plan = compile(spec.getJarType(), spec.isNonFinal(),
+                    spec.getGroupIdPrefix(), spec.getDisabledRules(),
+                    spec.getRules());
+            RulePlan existing = PLANS.putIfAbsent(key, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Compile a plan.
+     * @param jarType the JAR type
+     * @param nonFinal the non final flag
+     * @param groupIdPrefix the groupId prefix
+     * @param disabledRules the names of the rules to skip
+     * @param customRules the class names of the custom rules to add
+     * @return the compiled plan
+     */
+    public static RulePlan compile(final Spec.JarType jarType,
+            final boolean nonFinal, final String groupIdPrefix,
+            final List<String> disabledRules, final List<String> customRules) {
+
+        List<Rule> all = new ArrayList<Rule>();
+        all.add(new ConfigurationRule());
+        all.add(new SpecVersionRule());
+        all.add(new ImplementationVersionRule());
+        all.add(new ExtensionNameRule());
+        all.add(new BundleVersionRule(nonFinal));
+        all.add(new BundleSpecVersionRule(nonFinal));
+        all.add(new SpecificationVersionRule(nonFinal));
+        if (jarType.equals(Spec.JarType.api)) {
+            all.add(new GroupIdPrefixRule(groupIdPrefix, true));
+            all.add(new ArtifactIdSuffixRule(true));
+            all.add(new ApiPackagePrefixRule(Spec.JAVAX_GROUP_ID,
+                    groupIdPrefix));
+            all.add(new BundleSymbolicNameRule(jarType));
+            all.add(new ClassPackagesRule(jarType));
+            if (nonFinal) {
+                all.add(new NewSpecVersionRule());
+            } else {
+                all.add(new SpecImplVersionRule());
+            }
+        } else {
+            all.add(new GroupIdPrefixRule(groupIdPrefix, false));
+            all.add(new ArtifactIdSuffixRule(false));
+            all.add(new ApiPackagePrefixRule(groupIdPrefix, groupIdPrefix));
+            all.add(new BundleSymbolicNameRule(jarType));
+            all.add(new ClassPackagesRule(jarType));
+            if (nonFinal) {
+                all.add(new NewImplVersionRule());
+            }
+        }
+        for (String className : customRules) {
+            all.add(newRule(className));
+        }
+
+        List<Rule> planRules = new ArrayList<Rule>(all.size());
+        for (Rule rule : all) {
+            if (!disabledRules.contains(rule.getName())) {
+                planRules.add(rule);
+            }
+        }
+        return new RulePlan(planRules);
+    }
+
+    /**
+     * Create a custom rule.
+     * @param className the rule class name
+     * @return the created rule
+     */
+    private static Rule newRule(final String className) {
+        ClassLoader cl = RulePlan.class.getClassLoader();
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className, true, cl);
+        } catch (ClassNotFoundException ex) {
+            try {
+                clazz = Class.forName(className, true,
+                        Thread.currentThread().getContextClassLoader());
+            } catch (ClassNotFoundException ex2) {
+                throw new IllegalArgumentException(
+                        "unable to load rule " + className, ex2);
+            }
+        }
+        try {
+            return clazz.asSubclass(Rule.class).getDeclaredConstructor()
+                    .newInstance();
+        } catch (ClassCastException ex) {
+            throw new IllegalArgumentException(className
+                    + " does not implement " + Rule.class.getName(), ex);
+        } catch (InstantiationException ex) {
+            throw new IllegalArgumentException(
+                    "unable to create rule " + className, ex);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException(
+                    "unable to create rule " + className, ex);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException(
+                    "unable to create rule " + className, ex);
+        } catch (InvocationTargetException ex) {
+            throw new IllegalArgumentException(
+                    "unable to create rule " + className, ex.getCause());
+        }
+    }
+
+    /**
+     * Get the names of the rules of this plan.
+     * @return the rule names, in order
+     */
+    public List<String> getRuleNames() {
+        List<String> names = new ArrayList<String>(rules.length);
+        for (Rule rule : rules) {
+            names.add(rule.getName());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Evaluate the rules against the given spec.
+     * @param spec the spec to verify
+     * @param errors the list of errors to add to
+     */
+    public void verify(final Spec spec, final List<String> errors) {
+        verify(spec, errors, Metrics.DISABLED);
+    }
+
+    /**
+     * Run the rules of this plan and time each rule.
+     * @param spec the spec to verify
+     * @param errors the list of errors to add to
+     * @param metrics the metrics to record
+     */
+    public void verify(final Spec spec, final List<String> errors,
+            final Metrics metrics) {
+
+        for (Rule rule : rules) {
+            long start = metrics.start();
+            Object event = metrics.begin(Tracer.RULE_EVALUATED);
+            int size = errors.size();
+            boolean proceed = rule.verify(spec, errors);
+            metrics.stop(Metrics.RULE_PREFIX + rule.getName(), start);
+            if (event != null) {
+                metrics.end(event, String.valueOf(spec.getArtifact()),
+                        rule.getName(), errors.size() - size, 0);
+            }
+            if (!proceed) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.jfr;
+
+import org.glassfish.spec.Tracer;
+
+/**
+ * A {@link Tracer} that emits Java Flight Recorder events.
+ *
+ * @author Romain Grecourt
+ */
+public final class JfrTracer implements Tracer {
+
+    @Override
+    public Object begin(final String type) {
+        SpecEvent event;
+        if (JAR_OPENED.equals(type)) {
+            event = new JarOpenedEvent();
+        } else if (MANIFEST_PARSED.equals(type)) {
+            event = new ManifestParsedEvent();
+        } else if (POM_PROPERTIES_LOCATED.equals(type)) {
+            event = new PomPropertiesLocatedEvent();
+        } else if (CLASSES_CHECKED.equals(type)) {
+            event = new ClassesCheckedEvent();
+        } else if (RULE_EVALUATED.equals(type)) {
+            event = new RuleEvaluatedEvent();
+        } else {
+            return null;
+        }
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void end(final Object handle, final String path,
+            final String name, final long count, final long bytes) {
+
+        SpecEvent event = (SpecEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.name = name;
+            event.count = count;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -40,12 +40,46 @@
 #
 
 args=""
+propfile=""
+otherflags=""
 for arg in `echo $*`
 do
   if [ "${arg:0:2}" == "--" ]
   then
-      args="-D${arg:2} "
+      args="${args}-D${arg:2} "
+  fi
+  if [ "${arg:0:13}" == "--properties=" ]
+  then
+      propfile="${arg:13}"
+  else
+      otherflags="${otherflags} ${arg}"
   fi
 done
 
+# use the verification daemon if started (see the daemon goal), the
+# requests only carry the properties file, use Maven for other options
+tokenfile="${SPEC_DAEMON_TOKEN_FILE:-${HOME}/.spec-version-daemon-${SPEC_DAEMON_PORT}.token}"
+if [ -n "${SPEC_DAEMON_PORT}" ] && [ -n "${propfile}" ] && [ -z "${otherflags}" ] \
+    && [ -r "${tokenfile}" ] \
+    && { exec 3<>/dev/tcp/127.0.0.1/${SPEC_DAEMON_PORT}; } 2>/dev/null
+then
+  {
+    echo "TOKEN=`cat "${tokenfile}"`"
+    echo "BASE_DIR=`pwd`"
+    grep -v -e '^[[:space:]]*#' -e '^[[:space:]]*$' "${propfile}"
+    echo
+  } >&3
+  status=1
+  while IFS= read -r line <&3
+  do
+    case "${line}" in
+      OK) status=0 ;;
+      FAILED) status=1 ;;
+      *) echo "${line}" ;;
+    esac
+  done
+  exec 3<&-
+  exit ${status}
+fi
+
 mvn ${project.groupId}:${project.artifactId}:${project.version}:cli $args
@@ -0,0 +1,263 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.Spec;
+
+/**
+ * Generate synthetic distribution directories for scale testing.
+ * Each generated JAR file is a final API {@code javax.genN} with a valid
+ * manifest and {@code pom.properties}, classes in a tree of packages, and
+ * optionally classes in a wrong package and a padding entry.
+ *
+ * Usage: {@code TestDistribution dir jars [classes] [badRatio] [padding]}
+ *
+ * @author Romain Grecourt
+ */
+public class TestDistribution {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] CLASS_BYTES = new byte[]{
+        (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE};
+
+    private int jars = 10;
+    private int classes = 100;
+    private int packageDepth = 3;
+    private int packageFanOut = 4;
+    private double badPackageRatio = 0;
+    private long padding = 0;
+    private long seed = 42;
+
+    public TestDistribution jars(int n) {
+        this.jars = n;
+        return this;
+    }
+
+    public TestDistribution classes(int n) {
+        this.classes = n;
+        return this;
+    }
+
+    public TestDistribution packages(int depth, int fanOut) {
+        this.packageDepth = depth;
+        this.packageFanOut = fanOut;
+        return this;
+    }
+
+    public TestDistribution badPackageRatio(double ratio) {
+        this.badPackageRatio = ratio;
+        return this;
+    }
+
+    public TestDistribution padding(long bytes) {
+        this.padding = bytes;
+        return this;
+    }
+
+    public TestDistribution seed(long s) {
+        this.seed = s;
+        return this;
+    }
+
+    public static String apiPackage(int index) {
+        return "javax.gen" + index;
+    }
+
+    public static String version(int index) {
+        return "1.0." + index;
+    }
+
+    /**
+     * Create the spec configuration matching the generated JAR file.
+     */
+    public static Spec spec(int index) {
+        Spec spec = new Spec();
+        spec.setGroupIdPrefix(Spec.JAVAX_GROUP_ID);
+        spec.setArtifact(new Artifact(apiPackage(index),
+                apiPackage(index) + Spec.API_SUFFIX, version(index)));
+        spec.setJarType(Spec.JarType.api.name());
+        spec.setNonFinal(false);
+        spec.setSpecVersion("1.0");
+        spec.setNewSpecVersion("");
+        spec.setSpecImplVersion(version(index));
+        spec.setImplVersion("");
+        spec.setNewImplVersion("");
+        spec.setSpecBuild("");
+        spec.setImplBuild("");
+        spec.setApiPackage(apiPackage(index));
+        spec.setImplNamespace("");
+        return spec;
+    }
+
+    /**
+     * Generate the distribution.
+     * @return the generated files, a file is in a wrong package if
+     * {@link #isBad(File)} returns {@code true}
+     */
+    public List<File> write(File dir) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("unable to create " + dir);
+        }
+        Random random = new Random(seed);
+        List<File> files = new ArrayList<File>(jars);
+        for (int i = 0; i < jars; i++) {
+            boolean bad = random.nextDouble() < badPackageRatio;
+            File file = new File(dir, apiPackage(i) + Spec.API_SUFFIX
+                    + (bad ? "-bad" : "") + ".jar");
+            writeJar(file, i, bad);
+            files.add(file);
+        }
+        return files;
+    }
+
+    public static boolean isBad(File file) {
+        return file.getName().endsWith("-bad.jar");
+    }
+
+    private void writeJar(File file, int index, boolean bad)
+            throws IOException {
+
+        String apiPackage = apiPackage(index);
+        Manifest manifest = new Manifest();
+        Attributes attrs = manifest.getMainAttributes();
+        attrs.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attrs.putValue("Bundle-ManifestVersion", "2");
+        attrs.putValue("Bundle-SymbolicName", apiPackage + Spec.API_SUFFIX);
+        attrs.putValue("Bundle-Version", version(index));
+        attrs.putValue("Export-Package", apiPackage + ";version=\"1.0\"");
+        attrs.putValue("Extension-Name", apiPackage);
+        attrs.putValue("Specification-Version", "1.0");
+        attrs.putValue("Implementation-Version", version(index));
+
+        JarOutputStream jos = new JarOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), BUFFER_SIZE), manifest);
+        try {
+            jos.putNextEntry(new ZipEntry("META-INF/maven/" + apiPackage
+                    + "/" + apiPackage + Spec.API_SUFFIX
+                    + "/pom.properties"));
+            jos.write(("groupId=" + apiPackage + "\n"
+                    + "artifactId=" + apiPackage + Spec.API_SUFFIX + "\n"
+                    + "version=" + version(index) + "\n").getBytes("UTF-8"));
+            jos.closeEntry();
+
+            String root = apiPackage.replace('.', '/');
+            for (int c = 0; c < classes; c++) {
+                jos.putNextEntry(new ZipEntry(
+                        root + packagePath(c) + "/Class" + c + ".class"));
+                jos.write(CLASS_BYTES);
+                jos.closeEntry();
+            }
+            if (bad) {
+                jos.putNextEntry(new ZipEntry(
+                        "javax/rogue" + index + "/Hidden.class"));
+                jos.write(CLASS_BYTES);
+                jos.closeEntry();
+            }
+            if (padding > 0) {
+                writePadding(jos);
+            }
+        } finally {
+            jos.close();
+        }
+    }
+
+    private String packagePath(int classIndex) {
+        StringBuilder sb = new StringBuilder();
+        int n = classIndex;
+        for (int d = 0; d < packageDepth; d++) {
+            sb.append("/p").append(n % packageFanOut);
+            n /= packageFanOut;
+        }
+        return sb.toString();
+    }
+
+    private void writePadding(JarOutputStream jos) throws IOException {
+        byte[] block = new byte[BUFFER_SIZE];
+        CRC32 crc = new CRC32();
+        for (long n = padding; n > 0; n -= block.length) {
+            crc.update(block, 0, (int) Math.min(block.length, n));
+        }
+        ZipEntry entry = new ZipEntry("META-INF/padding.bin");
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(padding);
+        entry.setCrc(crc.getValue());
+        jos.putNextEntry(entry);
+        for (long n = padding; n > 0; n -= block.length) {
+            jos.write(block, 0, (int) Math.min(block.length, n));
+        }
+        jos.closeEntry();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: TestDistribution dir jars"
+                    + " [classes] [badRatio] [padding]");
+            System.exit(1);
+        }
+        TestDistribution distrib = new TestDistribution()
+                .jars(Integer.parseInt(args[1]));
+        if (args.length > 2) {
+            distrib.classes(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            distrib.badPackageRatio(Double.parseDouble(args[3]));
+        }
+        if (args.length > 4) {
+            distrib.padding(Long.parseLong(args[4]));
+        }
+        List<File> files = distrib.write(new File(args[0]));
+        System.out.println("Generated " + files.size() + " jars in "
+                + args[0]);
+    }
+}
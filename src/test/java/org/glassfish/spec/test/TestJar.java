@@ -0,0 +1,140 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Create JAR files for the tests.
+ *
+ * @author Romain Grecourt
+ */
+public class TestJar {
+
+    private final Map<String, byte[]> entries =
+            new LinkedHashMap<String, byte[]>();
+
+    private final Set<String> stored = new HashSet<String>();
+
+    public TestJar manifest(String... attributes) {
+        StringBuilder sb = new StringBuilder("Manifest-Version: 1.0\n");
+        for (String attr : attributes) {
+            sb.append(attr).append('\n');
+        }
+        return entry("META-INF/MANIFEST.MF", sb.toString());
+    }
+
+    public TestJar pom(String groupId, String artifactId, String version) {
+        return entry("META-INF/maven/" + groupId + "/" + artifactId
+                + "/pom.properties",
+                "groupId=" + groupId + "\n"
+                + "artifactId=" + artifactId + "\n"
+                + "version=" + version + "\n");
+    }
+
+    public TestJar classes(String... classNames) {
+        for (String className : classNames) {
+            entry(className.replace('.', '/') + ".class", new byte[]{
+                (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        }
+        return this;
+    }
+
+    public TestJar entry(String name, String content) {
+        try {
+            return entry(name, content.getBytes("UTF-8"));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public TestJar entry(String name, byte[] content) {
+        entries.put(name, content);
+        return this;
+    }
+
+    public TestJar stored(String name, String content) {
+        stored.add(name);
+        return entry(name, content);
+    }
+
+    public TestJar stored(String name, byte[] content) {
+        stored.add(name);
+        return entry(name, content);
+    }
+
+    public File write(File file) throws IOException {
+        JarOutputStream jos = new JarOutputStream(new FileOutputStream(file));
+        try {
+            for (Map.Entry<String, byte[]> e : entries.entrySet()) {
+                ZipEntry entry = new ZipEntry(e.getKey());
+                if (stored.contains(e.getKey())) {
+                    CRC32 crc = new CRC32();
+                    crc.update(e.getValue());
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(e.getValue().length);
+                    entry.setCrc(crc.getValue());
+                }
+                jos.putNextEntry(entry);
+                jos.write(e.getValue());
+                jos.closeEntry();
+            }
+        } finally {
+            jos.close();
+        }
+        return file;
+    }
+
+    public File write() throws IOException {
+        File file = File.createTempFile("spec-version", ".jar");
+        file.deleteOnExit();
+        return write(file);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import org.glassfish.spec.DirectoryWatcher;
+import org.glassfish.spec.test.TestJar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class DirectoryWatcherTest {
+
+    private static File jar(File file) throws Exception {
+        return new TestJar()
+                .manifest()
+                .pom("javax.courgette", "javax.courgette-api", "1.0")
+                .classes("javax.courgette.Hello")
+                .write(file);
+    }
+
+    @Test
+    public void watchChanges() throws Exception {
+        File dir = Files.createTempDirectory("dist").toFile();
+        File existing = jar(new File(dir, "existing.jar"));
+        DirectoryWatcher watcher = new DirectoryWatcher(dir, 200);
+        try {
+            Assert.assertEquals(Collections.emptyList(), watcher.poll(100));
+
+            File created = jar(new File(dir, "created.jar"));
+            jar(existing);
+            Assert.assertEquals(Arrays.asList(created, existing),
+                    watcher.poll(10000));
+
+            File modules = new File(dir, "modules");
+            modules.mkdir();
+            File nested = jar(new File(modules, "nested.jar"));
+            Assert.assertEquals(Arrays.asList(nested), watcher.poll(10000));
+
+            jar(nested);
+            Assert.assertEquals(Arrays.asList(nested), watcher.poll(10000));
+        } finally {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void overflow() throws Exception {
+        File dir = Files.createTempDirectory("dist").toFile();
+        DirectoryWatcher watcher = new DirectoryWatcher(dir, 200);
+        try {
+            // more events than a watch key queues before overflowing
+            for (int i = 0; i < 1000; i++) {
+                Files.write(new File(dir, i + ".jar").toPath(),
+                        new byte[]{1});
+            }
+            Assert.assertEquals(1000, watcher.poll(10000).size());
+        } finally {
+            watcher.close();
+        }
+    }
+}
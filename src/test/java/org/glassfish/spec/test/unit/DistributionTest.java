@@ -0,0 +1,98 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.util.List;
+import java.util.jar.JarFile;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.test.TestDistribution;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class DistributionTest {
+
+    @Test
+    public void verifyDistribution() throws Exception {
+        File dir = File.createTempFile("spec-version", "-distrib");
+        dir.delete();
+        List<File> files = new TestDistribution()
+                .jars(20)
+                .classes(200)
+                .badPackageRatio(0.25)
+                .padding(100 * 1024)
+                .write(dir);
+        Assert.assertEquals(20, files.size());
+
+        int bad = 0;
+        for (int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            Spec spec = TestDistribution.spec(i);
+            JarFile jar = new JarFile(file);
+            try {
+                spec.read(jar);
+            } finally {
+                jar.close();
+            }
+            Assert.assertEquals(spec.getArtifact(),
+                    JarScanner.scan(file).getArtifact());
+            spec.verify();
+            if (TestDistribution.isBad(file)) {
+                bad++;
+                Assert.assertEquals(file.getName(), 1,
+                        spec.getErrors().size());
+                Assert.assertTrue(spec.getErrors().get(0),
+                        spec.getErrors().get(0).contains("javax.rogue" + i));
+            } else {
+                Assert.assertTrue(file.getName() + " " + spec.getErrors(),
+                        spec.getErrors().isEmpty());
+            }
+            file.delete();
+        }
+        Assert.assertTrue(bad > 0);
+        dir.delete();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import org.glassfish.spec.ExportPackageParser;
+import org.glassfish.spec.Metadata;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.rules.BundleSpecVersionRule;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class ExportPackageParserTest {
+
+    @Test
+    public void parseClauses() {
+        Map<String, String> exports = ExportPackageParser.parse(
+                "javax.ws.rs;uses:=\"javax.ws.rs.core,javax.ws.rs.ext\";"
+                + "version=\"2.1\", javax.ws.rs.core ; javax.ws.rs.ext;"
+                + "version=2.1.1;mandatory:=\"a;b\","
+                + "javax.ws.rs.spi;specification-version=1.0,"
+                + "javax.ws.rs.client,"
+                + "javax.ws.rs;version=3.0");
+        Assert.assertEquals(Arrays.asList("javax.ws.rs", "javax.ws.rs.core",
+                "javax.ws.rs.ext", "javax.ws.rs.spi", "javax.ws.rs.client"),
+                new ArrayList<String>(exports.keySet()));
+        Assert.assertEquals("2.1", exports.get("javax.ws.rs"));
+        Assert.assertEquals("2.1.1", exports.get("javax.ws.rs.core"));
+        Assert.assertEquals("2.1.1", exports.get("javax.ws.rs.ext"));
+        Assert.assertEquals("1.0", exports.get("javax.ws.rs.spi"));
+        Assert.assertEquals(ExportPackageParser.DEFAULT_VERSION,
+                exports.get("javax.ws.rs.client"));
+    }
+
+    @Test
+    public void parseRanges() {
+        Map<String, String> exports = ExportPackageParser.parse(
+                "a;x=\"[1.0,2.0)\";version=\"1.5\",b;x=\"q\\\"\"");
+        Assert.assertEquals("1.5", exports.get("a"));
+        Assert.assertEquals(ExportPackageParser.DEFAULT_VERSION,
+                exports.get("b"));
+        Assert.assertTrue(ExportPackageParser.parse(null).isEmpty());
+        Assert.assertTrue(ExportPackageParser.parse(" ").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unterminatedQuote() {
+        ExportPackageParser.parse("a;uses:=\"b,c");
+    }
+
+    @Test
+    public void bundleSpecVersion() {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.putValue(Metadata.JAR_EXTENSION_NAME, "javax.courgette");
+        attributes.putValue(Metadata.EXPORT_PACKAGE,
+                "javax.courgette.spi;version=\"2.4\","
+                + "javax.courgette;uses:=\"javax.courgette.spi\";"
+                + "version=\"2.4.0\"");
+        Metadata metadata = Metadata.fromManifest(manifest);
+        Assert.assertEquals("2.4.0", metadata.getBundleSpecVersion());
+        Assert.assertEquals(2, metadata.getExportedPackages().size());
+
+        Spec spec = new Spec();
+        spec.setApiPackage("javax.courgette");
+        spec.setSpecVersion("2.4");
+        spec.setMetadata(metadata);
+        BundleSpecVersionRule rule = new BundleSpecVersionRule(false);
+        ArrayList<String> errors = new ArrayList<String>();
+        rule.verify(spec, errors);
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+
+        spec.setSpecVersion("2.5");
+        rule.verify(spec, errors);
+        Assert.assertEquals(Arrays.asList(
+                "WARNING: BundleSpecVersion (2.4.0) should be 2.5"), errors);
+    }
+}
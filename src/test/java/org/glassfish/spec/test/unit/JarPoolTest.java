@@ -0,0 +1,119 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipException;
+import org.glassfish.spec.JarPool;
+import org.glassfish.spec.JarReader;
+import org.glassfish.spec.test.TestJar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class JarPoolTest {
+
+    private static File jar(String name) throws Exception {
+        return new TestJar()
+                .manifest()
+                .pom("javax." + name, "javax." + name + "-api", "1.0")
+                .classes("javax." + name + ".Hello")
+                .write();
+    }
+
+    @Test
+    public void shareAndClose() throws Exception {
+        File file = jar("courgette");
+        JarPool pool = new JarPool(1);
+        JarPool.Handle h1 = pool.acquire(file);
+        JarPool.Handle h2 = pool.acquire(file);
+        Assert.assertSame(h1.getReader(), h2.getReader());
+        Assert.assertEquals(1, pool.size());
+        JarReader reader = h1.getReader();
+        h1.close();
+        h1.close();
+        Assert.assertTrue(reader.entries().next());
+        h2.close();
+        Assert.assertEquals(0, pool.size());
+        try {
+            reader.entries().next();
+            Assert.fail("reader should be closed");
+        } catch (ZipException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void maxOpen() throws Exception {
+        final File first = jar("courgette");
+        final File second = jar("poireau");
+        final JarPool pool = new JarPool(1);
+        JarPool.Handle h1 = pool.acquire(first);
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final AtomicReference<JarPool.Handle> h2 =
+                new AtomicReference<JarPool.Handle>();
+        Thread t = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    h2.set(pool.acquire(second));
+                    acquired.countDown();
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        };
+        t.start();
+        Assert.assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        h1.close();
+        Assert.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, pool.size());
+        h2.get().close();
+        t.join();
+        Assert.assertEquals(0, pool.size());
+    }
+}
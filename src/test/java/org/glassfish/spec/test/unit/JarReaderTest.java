@@ -0,0 +1,299 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipException;
+import org.glassfish.spec.JarReader;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metadata;
+import org.glassfish.spec.test.TestJar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class JarReaderTest {
+
+    private static File createJar() throws Exception {
+        return new TestJar()
+                .manifest("Bundle-SymbolicName: javax.courgette-api",
+                        "Bundle-Version: 2.4.3")
+                .pom("javax.courgette", "javax.courgette-api", "2.4.3")
+                .entry("javax/courgette/", "")
+                .classes("javax.courgette.Hello", "javax.courgette.World")
+                .stored("javax/courgette/messages.properties", "hello=world")
+                .write();
+    }
+
+    @Test
+    public void readCentralDirectory() throws Exception {
+        File file = createJar();
+        List<String> expected = new ArrayList<String>();
+        JarFile jar = new JarFile(file);
+        try {
+            Enumeration<JarEntry> e = jar.entries();
+            while (e.hasMoreElements()) {
+                expected.add(e.nextElement().getName());
+            }
+        } finally {
+            jar.close();
+        }
+
+        JarReader reader = JarReader.open(file);
+        List<String> names = new ArrayList<String>();
+        JarReader.Entry entry = reader.entries();
+        while (entry.next()) {
+            names.add(entry.getName());
+            Assert.assertEquals(entry.getName().endsWith("/"),
+                    entry.isDirectory());
+        }
+        Assert.assertEquals(expected, names);
+        Assert.assertEquals(expected.size(), reader.size());
+    }
+
+    @Test
+    public void readEntries() throws Exception {
+        JarReader reader = JarReader.open(createJar());
+        JarReader.Entry entry = reader.entries();
+        while (entry.next()) {
+            if (entry.nameEndsWith("messages.properties")) {
+                Assert.assertEquals("hello=world",
+                        new String(reader.getBytes(entry), "UTF-8"));
+            } else if (entry.nameEqualsIgnoreCase("meta-inf/manifest.mf")) {
+                Assert.assertTrue(new String(reader.getBytes(entry), "UTF-8")
+                        .contains("Bundle-Version: 2.4.3"));
+            }
+        }
+    }
+
+    @Test
+    public void scanSameAsJarFile() throws Exception {
+        File file = createJar();
+        JarScanner.Contents fromReader = JarScanner.scan(file);
+        JarFile jar = new JarFile(file);
+        try {
+            JarScanner.Contents fromJar = JarScanner.scan(jar);
+            Assert.assertEquals(fromJar.getArtifact(),
+                    fromReader.getArtifact());
+            Assert.assertEquals(fromJar.getMetadata().getProperties(),
+                    fromReader.getMetadata().getProperties());
+            Assert.assertEquals(new ArrayList<String>(fromJar.getPackages()),
+                    new ArrayList<String>(fromReader.getPackages()));
+        } finally {
+            jar.close();
+        }
+    }
+
+    @Test
+    public void readNestedJars() throws Exception {
+        byte[] courgette = Files.readAllBytes(createJar().toPath());
+        byte[] carotte = Files.readAllBytes(new TestJar()
+                .manifest()
+                .pom("javax.carotte", "javax.carotte-api", "1.0")
+                .classes("javax.carotte.Hello")
+                .write().toPath());
+        File file = new TestJar()
+                .entry("glassfish/modules/", "")
+                .stored("glassfish/modules/javax.courgette-api.jar", courgette)
+                .entry("glassfish/modules/javax.carotte-api.jar", carotte)
+                .write();
+
+        List<String> artifacts = new ArrayList<String>();
+        JarReader bundle = JarReader.open(file);
+        try {
+            JarReader.Entry entry = bundle.entries();
+            while (entry.next()) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                JarReader.Nested nested = bundle.getNested(entry);
+                Assert.assertTrue(nested.getName()
+                        .endsWith(".jar!/" + entry.getName()));
+                JarScanner.Contents contents =
+                        new JarScanner.Contents(nested.getName());
+                JarScanner.scan(nested.open(), contents);
+                artifacts.add(contents.getArtifact().getArtifactId());
+            }
+        } finally {
+            bundle.close();
+        }
+        Assert.assertTrue(artifacts.contains("javax.courgette-api"));
+        Assert.assertTrue(artifacts.contains("javax.carotte-api"));
+        Assert.assertEquals(2, artifacts.size());
+    }
+
+    @Test
+    public void packageChanged() throws Exception {
+        File file = new TestJar()
+                .classes("javax.courgette.Hello", "javax.courgette.World",
+                        "javax.courgette.spi.Provider", "Default")
+                .write();
+        List<String> packages = new ArrayList<String>();
+        JarReader reader = JarReader.open(file);
+        try {
+            JarReader.Entry entry = reader.entries();
+            while (entry.next()) {
+                if (entry.nameEndsWith(".class") && entry.packageChanged()) {
+                    packages.add(entry.getPackageName());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        Assert.assertEquals(Arrays.asList("javax.courgette",
+                "javax.courgette.spi", "Default"), packages);
+    }
+
+    @Test
+    public void closedCursor() throws Exception {
+        JarReader reader = JarReader.open(createJar());
+        JarReader.Entry entry = reader.entries();
+        Assert.assertTrue(entry.next());
+        reader.close();
+        try {
+            entry.getName();
+            Assert.fail("entry name read after close");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        try {
+            entry.nameEndsWith(".class");
+            Assert.fail("entry name read after close");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        try {
+            entry.next();
+            Assert.fail("cursor moved after close");
+        } catch (ZipException ex) {
+            // expected
+        }
+    }
+
+    @Test(expected = ZipException.class)
+    public void notAZipFile() throws Exception {
+        new JarReader("invalid.jar", ByteBuffer.wrap(new byte[100]));
+    }
+
+    @Test
+    public void streamEntries() throws Exception {
+        JarReader reader = JarReader.open(createJar());
+        try {
+            JarReader.Entry entry = reader.entries();
+            while (entry.next()) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                InputStream is = reader.getInputStream(entry);
+                try {
+                    byte[] buf = new byte[7];
+                    int n = is.read(buf);
+                    while (n >= 0) {
+                        content.write(buf, 0, n);
+                        n = is.read(buf);
+                    }
+                } finally {
+                    is.close();
+                }
+                Assert.assertArrayEquals(entry.getName(),
+                        reader.getBytes(entry), content.toByteArray());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void streamSignedManifest() throws Exception {
+        StringBuilder manifest = new StringBuilder()
+                .append("Manifest-Version: 1.0\n")
+                .append("Bundle-SymbolicName: javax.courgette-api\n")
+                .append("Bundle-Version: 2.4.3\n")
+                .append("Extension-Name: javax.courgette\n")
+                .append("Specification-Version: 2.4\n")
+                .append("Implementation-Version: 2.4.3\n")
+                .append("\n");
+        for (int i = 0; i < 100000; i++) {
+            manifest.append("Name: javax/courgette/impl/Class").append(i)
+                    .append(".class\nSHA-256-Digest: ")
+                    .append(Integer.toHexString(i * 31 + 17))
+                    .append("j8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU=\n\n");
+        }
+        Assert.assertTrue(manifest.length() > 8 * 1024 * 1024);
+        JarReader reader = JarReader.open(new TestJar()
+                .entry("META-INF/MANIFEST.MF", manifest.toString())
+                .write());
+        try {
+            JarReader.Entry entry = reader.entries();
+            Assert.assertTrue(entry.next());
+            InputStream is = reader.getInputStream(entry);
+            Metadata metadata;
+            try {
+                metadata = Metadata.fromManifest(is);
+            } finally {
+                is.close();
+            }
+            Assert.assertEquals("javax.courgette-api",
+                    metadata.getBundleSymbolicName());
+            Assert.assertTrue(metadata.getErrors().isEmpty());
+            long inflated =
+                    ((JarReader.EntryInputStream) is).getBytesInflated();
+            Assert.assertTrue(String.valueOf(inflated), inflated > 0);
+            Assert.assertTrue(String.valueOf(inflated), inflated <= 4096);
+        } finally {
+            reader.close();
+        }
+    }
+}
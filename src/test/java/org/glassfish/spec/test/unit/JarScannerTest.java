@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.jar.JarFile;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metadata;
+import org.glassfish.spec.PackageIndex;
+import org.glassfish.spec.PackageMatcher;
+import org.glassfish.spec.test.TestJar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class JarScannerTest {
+
+    @Test
+    public void scanContents() throws Exception {
+        JarFile jar = new JarFile(new TestJar()
+                .manifest("Bundle-SymbolicName: javax.courgette-api",
+                        "Extension-Name: javax.courgette")
+                .pom("javax.courgette", "javax.courgette-api", "2.4.3")
+                .classes("javax.courgette.Hello",
+                        "javax.courgette.spi.Provider",
+                        "javax.courgette.World",
+                        "Default")
+                .write());
+        try {
+            JarScanner.Contents contents = JarScanner.scan(jar);
+            Assert.assertEquals(
+                    new Artifact("javax.courgette", "javax.courgette-api",
+                            "2.4.3"),
+                    contents.getArtifact());
+            Metadata metadata = contents.getMetadata();
+            Assert.assertEquals("javax.courgette-api",
+                    metadata.getBundleSymbolicName());
+            Assert.assertEquals("javax.courgette",
+                    metadata.getJarExtensionName());
+            Assert.assertEquals(
+                    Arrays.asList("javax.courgette", "javax.courgette.spi",
+                            "Default"),
+                    new ArrayList<String>(contents.getPackages()));
+        } finally {
+            jar.close();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void missingPomProperties() throws Exception {
+        JarFile jar = new JarFile(new TestJar()
+                .manifest()
+                .classes("javax.courgette.Hello")
+                .write());
+        try {
+            JarScanner.scan(jar).getArtifact();
+        } finally {
+            jar.close();
+        }
+    }
+
+    @Test
+    public void packageIndex() throws Exception {
+        File file = new TestJar()
+                .manifest()
+                .pom("javax.courgette", "javax.courgette-api", "2.4.3")
+                .classes("javax.courgette.A",
+                        "javax.courgette.B",
+                        "com.acme.C",
+                        "javax.courgette.D")
+                .write();
+        JarFile jar = new JarFile(file);
+        try {
+            for (JarScanner.Contents contents : Arrays.asList(
+                    JarScanner.scan(jar), JarScanner.scan(file))) {
+                PackageIndex index = contents.getPackageIndex();
+                Assert.assertEquals(4, index.getClassCount());
+                Assert.assertEquals(3,
+                        index.getClassCount("javax.courgette"));
+                Assert.assertEquals(1, index.getClassCount("com.acme"));
+                Assert.assertEquals(0, index.getClassCount("javax"));
+                Map<String, Boolean> verdicts = index.classify(
+                        PackageMatcher.compile("javax.courgette"));
+                Assert.assertEquals(Arrays.asList(
+                        "javax.courgette", "com.acme"),
+                        new ArrayList<String>(verdicts.keySet()));
+                Assert.assertEquals(Arrays.asList(true, false),
+                        new ArrayList<Boolean>(verdicts.values()));
+            }
+        } finally {
+            jar.close();
+        }
+    }
+}
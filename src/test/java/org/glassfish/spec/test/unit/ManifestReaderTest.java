@@ -0,0 +1,149 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.jar.Manifest;
+import org.glassfish.spec.ManifestReader;
+import org.glassfish.spec.Metadata;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class ManifestReaderTest {
+
+    private static final String MAIN = "Manifest-Version: 1.0\r\n"
+            + "Bundle-SymbolicName: javax.courgette-api\r\n"
+            + "Export-Package: javax.courgette.spi;version=\"2.4\",javax.cour\r\n"
+            + " gette;version=\"2.4\"\r\n"
+            + "bundle-version: 2.4.3\n"
+            + "Extension-Name: javax.courgette\r\n"
+            + "Specification-Version: 2.4\n"
+            + "Implementation-Version: 2.4.3\n"
+            + "\n";
+
+    @Test
+    public void readMainSection() throws Exception {
+        String[] values = ManifestReader.read(
+                new ByteArrayInputStream(MAIN.getBytes("UTF-8")),
+                "Export-Package", "Bundle-Version", "Extension-Name",
+                "Missing");
+        Assert.assertEquals(Arrays.asList(
+                "javax.courgette.spi;version=\"2.4\","
+                + "javax.courgette;version=\"2.4\"",
+                "2.4.3", "javax.courgette", null), Arrays.asList(values));
+    }
+
+    @Test
+    public void readCarriageReturns() throws Exception {
+        String content = "Manifest-Version: 1.0\r"
+                + "Extension-Name: javax.cour\r"
+                + " gette\r\n"
+                + "Bundle-Version: 2.4.3\r"
+                + "\r"
+                + "Specification-Version: 2.4\r";
+        String[] values = ManifestReader.read(
+                new ByteArrayInputStream(content.getBytes("UTF-8")),
+                "Extension-Name", "Bundle-Version", "Specification-Version");
+        Assert.assertEquals(Arrays.asList("javax.courgette", "2.4.3", null),
+                Arrays.asList(values));
+    }
+
+    @Test
+    public void sameAsManifest() throws Exception {
+        byte[] content = (MAIN + "Name: javax/courgette/Hello.class\n"
+                + "SHA-256-Digest: 47DEQpj8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU=\n"
+                + "\n").getBytes("UTF-8");
+        Metadata fromStream = Metadata.fromManifest(
+                new ByteArrayInputStream(content));
+        Metadata fromManifest = Metadata.fromManifest(
+                new Manifest(new ByteArrayInputStream(content)));
+        Assert.assertEquals(fromManifest.getProperties(),
+                fromStream.getProperties());
+        Assert.assertEquals(fromManifest.getErrors(), fromStream.getErrors());
+        Assert.assertEquals("2.4", fromStream.getBundleSpecVersion());
+        Assert.assertTrue(fromStream.getErrors().isEmpty());
+    }
+
+    @Test
+    public void stopAtEndOfMainSection() throws Exception {
+        ByteArrayOutputStream signed = new ByteArrayOutputStream();
+        signed.write(MAIN.getBytes("UTF-8"));
+        final int mainLength = signed.size();
+        for (int i = 0; i < 10000; i++) {
+            signed.write(("Name: javax/courgette/C" + i + ".class\n"
+                    + "SHA-256-Digest: AAAA\n\n").getBytes("UTF-8"));
+        }
+        InputStream is = new ByteArrayInputStream(signed.toByteArray()) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (pos > mainLength) {
+                    throw new IllegalStateException("read past main section");
+                }
+                return super.read(b, off, len);
+            }
+
+            @Override
+            public synchronized int read() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        Metadata metadata = Metadata.fromManifest(is);
+        Assert.assertEquals("javax.courgette-api",
+                metadata.getBundleSymbolicName());
+        Assert.assertTrue(metadata.getErrors().isEmpty());
+    }
+
+    @Test
+    public void missingEntries() throws IOException {
+        Metadata metadata = Metadata.fromManifest(
+                new ByteArrayInputStream(new byte[0]));
+        Assert.assertEquals(5, metadata.getErrors().size());
+        Assert.assertEquals("", metadata.getBundleSpecVersion());
+    }
+}
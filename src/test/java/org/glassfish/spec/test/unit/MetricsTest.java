@@ -0,0 +1,174 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.glassfish.spec.JarScanner;
+import org.glassfish.spec.Metrics;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.Tracer;
+import org.glassfish.spec.rules.ConfigurationRule;
+import org.glassfish.spec.test.TestDistribution;
+import org.glassfish.spec.test.TestJar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class MetricsTest {
+
+    @Test
+    public void recordPhases() throws Exception {
+        File jar = new TestJar()
+                .manifest("Bundle-SymbolicName: javax.courgette-api")
+                .pom("javax.courgette", "javax.courgette-api", "2.4.3")
+                .classes("javax.courgette.Hello", "javax.courgette.World")
+                .write();
+        Metrics metrics = new Metrics();
+        long start = metrics.start();
+        JarScanner.Contents contents = JarScanner.scan(jar, metrics);
+        Spec spec = TestDistribution.spec(1);
+        spec.setMetadata(contents.getMetadata());
+        spec.verify(metrics);
+        metrics.stopJar(jar.getPath(), start);
+
+        Map<String, Metrics.Timer> timers = metrics.getTimers();
+        Assert.assertEquals(1, timers.get(Metrics.JAR_OPEN).getCount());
+        Assert.assertEquals(1, timers.get(Metrics.MANIFEST).getCount());
+        Assert.assertEquals(1, timers.get(Metrics.POM_PROPERTIES).getCount());
+        Assert.assertEquals(1, timers.get(Metrics.VERIFY).getCount());
+        Assert.assertEquals(1, timers.get(Metrics.RULE_PREFIX
+                + ConfigurationRule.NAME).getCount());
+        Assert.assertEquals(Long.valueOf(2),
+                metrics.getCounters().get(Metrics.CLASSES));
+        Assert.assertEquals(jar.getPath(),
+                metrics.getSlowestJars().get(0).getPath());
+
+        File file = File.createTempFile("metrics", ".properties");
+        file.deleteOnExit();
+        metrics.write(file);
+        List<String> lines = Files.readAllLines(file.toPath(),
+                Charset.forName("UTF-8"));
+        Assert.assertTrue(lines.toString(),
+                lines.contains("timer." + Metrics.JAR + ".count=1"));
+    }
+
+    @Test
+    public void traceEvents() throws Exception {
+        File jar = new TestJar()
+                .manifest("Bundle-SymbolicName: javax.courgette-api")
+                .pom("javax.courgette", "javax.courgette-api", "2.4.3")
+                .classes("javax.courgette.Hello")
+                .write();
+        final List<String> events = new ArrayList<String>();
+        Metrics metrics = new Metrics(new Tracer() {
+            @Override
+            public Object begin(String type) {
+                return type;
+            }
+
+            @Override
+            public void end(Object handle, String path, String name,
+                    long count, long bytes) {
+                events.add(handle + ":" + name + ":" + count);
+            }
+        });
+        JarScanner.Contents contents = JarScanner.scan(jar, metrics);
+        Spec spec = TestDistribution.spec(1);
+        spec.setMetadata(contents.getMetadata());
+        spec.verify(metrics);
+
+        Assert.assertTrue(events.toString(),
+                events.contains(Tracer.JAR_OPENED + ":null:3"));
+        Assert.assertTrue(events.toString(),
+                events.contains(Tracer.CLASSES_CHECKED + ":null:1"));
+        Assert.assertTrue(events.toString(), events.contains(
+                Tracer.MANIFEST_PARSED + ":" + JarScanner.MANIFEST + ":1"));
+        Assert.assertTrue(events.toString(), events.contains(
+                Tracer.RULE_EVALUATED + ":" + ConfigurationRule.NAME + ":0"));
+    }
+
+    @Test
+    public void tracingOnly() throws Exception {
+        File jar = new TestJar()
+                .manifest("Bundle-SymbolicName: javax.courgette-api")
+                .pom("javax.courgette", "javax.courgette-api", "2.4.3")
+                .classes("javax.courgette.Hello")
+                .write();
+        final List<String> events = new ArrayList<String>();
+        Metrics metrics = Metrics.tracing(new Tracer() {
+            @Override
+            public Object begin(String type) {
+                return type;
+            }
+
+            @Override
+            public void end(Object handle, String path, String name,
+                    long count, long bytes) {
+                events.add(String.valueOf(handle));
+            }
+        });
+        metrics.stop(Metrics.JAR, metrics.start());
+        JarScanner.scan(jar, metrics);
+
+        Assert.assertFalse(metrics.isEnabled());
+        Assert.assertTrue(events.toString(),
+                events.contains(Tracer.JAR_OPENED));
+        Assert.assertTrue(metrics.getTimers().isEmpty());
+        Assert.assertTrue(metrics.getCounters().isEmpty());
+        Assert.assertSame(Metrics.DISABLED, Metrics.tracing(null));
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        Metrics.DISABLED.stop(Metrics.VERIFY, Metrics.DISABLED.start());
+        Metrics.DISABLED.count(Metrics.ENTRIES, 1);
+        Assert.assertTrue(Metrics.DISABLED.getTimers().isEmpty());
+        Assert.assertTrue(Metrics.DISABLED.getCounters().isEmpty());
+    }
+}
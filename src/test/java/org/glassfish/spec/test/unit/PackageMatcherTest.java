@@ -0,0 +1,114 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.util.Arrays;
+import org.glassfish.spec.PackageMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class PackageMatcherTest {
+
+    @Test
+    public void matchPackages() {
+        PackageMatcher matcher = PackageMatcher.compile(
+                "javax.xml.ws", "javax.jws", "com.sun", null);
+        Assert.assertTrue(matcher.matches("javax.xml.ws"));
+        Assert.assertTrue(matcher.matches("javax.xml.ws.spi"));
+        Assert.assertTrue(matcher.matches("javax/jws/soap"));
+        Assert.assertTrue(matcher.matches("com.sun.xml.ws"));
+        Assert.assertFalse(matcher.matches("javax.xml.wsdl"));
+        Assert.assertFalse(matcher.matches("javax.xml"));
+        Assert.assertFalse(matcher.matches("javax"));
+        Assert.assertFalse(matcher.matches("com.sunny"));
+        Assert.assertFalse(matcher.matches("org.glassfish"));
+        Assert.assertFalse(matcher.matches(""));
+    }
+
+    @Test
+    public void matchRegion() {
+        PackageMatcher matcher = PackageMatcher.compile("javax.jws");
+        String entry = "javax/jws/soap/SOAPBinding.class";
+        Assert.assertTrue(matcher.matches(entry, 0, entry.lastIndexOf('/')));
+        Assert.assertFalse(matcher.matches(entry, 0, "javax/j".length()));
+    }
+
+    @Test
+    public void nestedPrefixes() {
+        PackageMatcher matcher = PackageMatcher.compile("javax.a.b", "javax.a");
+        Assert.assertTrue(matcher.matches("javax.a"));
+        Assert.assertTrue(matcher.matches("javax.a.c"));
+        Assert.assertFalse(PackageMatcher.compile().matches("javax.a"));
+    }
+
+    @Test
+    public void matchWildcards() {
+        PackageMatcher matcher = PackageMatcher.compile(
+                "javax.xml.*.spi", "javax.**.internal", "javax.jws.*");
+        Assert.assertTrue(matcher.matches("javax.xml.ws.spi"));
+        Assert.assertTrue(matcher.matches("javax.xml.bind.spi.http"));
+        Assert.assertFalse(matcher.matches("javax.xml.ws.soap.spi"));
+        Assert.assertTrue(matcher.matches("javax.a.internal"));
+        Assert.assertTrue(matcher.matches("javax/a/b/internal"));
+        Assert.assertFalse(matcher.matches("javax.internals"));
+        Assert.assertTrue(matcher.matches("javax.jws.soap"));
+        Assert.assertFalse(matcher.matches("javax.jws"));
+        Assert.assertTrue(PackageMatcher.compile("**").matches("org.a"));
+    }
+
+    @Test
+    public void excludePackages() {
+        PackageMatcher matcher = PackageMatcher.compile(
+                Arrays.asList("javax.xml.ws", "javax.jws"),
+                Arrays.asList("javax.xml.ws.internal", "javax.**.impl*"));
+        Assert.assertTrue(matcher.matches("javax.xml.ws.spi"));
+        Assert.assertFalse(matcher.matches("javax.xml.ws.internal"));
+        Assert.assertFalse(matcher.matches("javax.xml.ws.internal.a"));
+        Assert.assertFalse(matcher.matches("javax.jws.soap.impl"));
+        Assert.assertFalse(matcher.matches("javax.jws.implementation"));
+        Assert.assertTrue(matcher.matches("javax.jws.soap"));
+        Assert.assertFalse(matcher.matches("javax.xml.bind"));
+    }
+}
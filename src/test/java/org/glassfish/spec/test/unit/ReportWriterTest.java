@@ -0,0 +1,150 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.glassfish.spec.Artifact;
+import org.glassfish.spec.VerificationResult;
+import org.glassfish.spec.report.JsonLinesReportWriter;
+import org.glassfish.spec.report.ReportWriter;
+import org.glassfish.spec.report.Reports;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class ReportWriterTest {
+
+    private static final VerificationResult PASSED = new VerificationResult(
+            new Artifact("javax.courgette", "javax.courgette-api", "1.0"),
+            "", Collections.<String>emptyList());
+
+    private static final VerificationResult FAILED = new VerificationResult(
+            new Artifact("javax.poireau", "javax.poireau-api", "1.0"),
+            "spec-version: 1.0",
+            Arrays.asList("ERROR: missing configuration (specVersion)",
+                    "WARNING: groupId (\"javax.poireau\") <must> & \\ \t"));
+
+    @Test
+    public void jsonLines() throws Exception {
+        StringWriter out = new StringWriter();
+        ReportWriter writer = new JsonLinesReportWriter(out);
+        writer.write("a.jar", PASSED);
+        writer.write("b.jar", FAILED);
+        writer.close();
+        String[] lines = out.toString().split("\n");
+        Assert.assertEquals(2, lines.length);
+        Assert.assertTrue(lines[0], lines[0].contains("\"success\":true"));
+        Assert.assertTrue(lines[1], lines[1].contains("\"level\":\"error\""));
+        Assert.assertTrue(lines[1],
+                lines[1].contains("(\\\"javax.poireau\\\") <must> & \\\\ \\t"));
+    }
+
+    @Test
+    public void allFormats() throws Exception {
+        File dir = Files.createTempDirectory("spec-reports").toFile();
+        ReportWriter writer = Reports.open("jsonl, junit,sarif", dir,
+                "check", "1.0");
+        writer.write("a.jar", PASSED);
+        writer.write("b.jar", FAILED);
+        writer.write("c.jar", FAILED);
+        writer.close();
+
+        Charset utf8 = Charset.forName("UTF-8");
+        List<String> jsonl = Files.readAllLines(
+                new File(dir, "check.jsonl").toPath(), utf8);
+        Assert.assertEquals(3, jsonl.size());
+
+        Element suite = DocumentBuilderFactory.newInstance()
+                .newDocumentBuilder()
+                .parse(new File(dir, "TEST-check.xml"))
+                .getDocumentElement();
+        Assert.assertEquals(3, Integer.parseInt(suite.getAttribute("tests")));
+        Assert.assertEquals(2,
+                Integer.parseInt(suite.getAttribute("failures")));
+        Assert.assertEquals(2,
+                suite.getElementsByTagName("failure").getLength());
+
+        String sarif = new String(Files.readAllBytes(
+                new File(dir, "check.sarif").toPath()), utf8);
+        Assert.assertTrue(sarif, sarif.startsWith("{\"$schema\""));
+        Assert.assertTrue(sarif, sarif.trim().endsWith("]}]}"));
+        Assert.assertEquals(4, sarif.split("\"physicalLocation\"").length - 1);
+        Assert.assertTrue(sarif, sarif.contains(
+                "{\"uri\":\"b.jar\",\"uriBaseId\":\"%SRCROOT%\"}"));
+    }
+
+    @Test
+    public void sarifUri() throws Exception {
+        File dir = Files.createTempDirectory("spec-reports").toFile();
+        File jar = new File(dir, "with space.jar");
+        ReportWriter writer = Reports.open("sarif", dir, "check", "1.0");
+        writer.write(jar.getPath(), FAILED);
+        writer.write("modules/d\u00e9j\u00e0.jar", FAILED);
+        writer.close();
+
+        String sarif = new String(Files.readAllBytes(
+                new File(dir, "check.sarif").toPath()),
+                Charset.forName("UTF-8"));
+        Assert.assertTrue(sarif, sarif.contains("{\"uri\":\""
+                + jar.toURI().toASCIIString() + "\"}"));
+        Assert.assertTrue(sarif, sarif.contains("with%20space.jar"));
+        Assert.assertTrue(sarif, sarif.contains(
+                "{\"uri\":\"modules/d%C3%A9j%C3%A0.jar\","
+                + "\"uriBaseId\":\"%SRCROOT%\"}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedFormat() throws Exception {
+        Reports.open("html", Files.createTempDirectory("spec-reports")
+                .toFile(), "check", "1.0");
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.glassfish.spec.Spec;
+import org.glassfish.spec.rules.BundleVersionRule;
+import org.glassfish.spec.rules.ConfigurationRule;
+import org.glassfish.spec.rules.Rule;
+import org.glassfish.spec.rules.RulePlan;
+import org.glassfish.spec.test.TestDistribution;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class RulePlanTest {
+
+    public static final class AlwaysFail implements Rule {
+
+        @Override
+        public String getName() {
+            return "always-fail";
+        }
+
+        @Override
+        public boolean verify(Spec spec, List<String> errors) {
+            errors.add("ERROR: always fail");
+            return true;
+        }
+    }
+
+    public static final class FailToCreate implements Rule {
+
+        public FailToCreate() {
+            throw new IllegalStateException("not configured");
+        }
+
+        @Override
+        public String getName() {
+            return "fail-to-create";
+        }
+
+        @Override
+        public boolean verify(Spec spec, List<String> errors) {
+            return true;
+        }
+    }
+
+    @Test
+    public void planPerJarType() {
+        List<String> empty = Collections.emptyList();
+        List<String> api = RulePlan.compile(Spec.JarType.api, false,
+                "javax.", empty, empty).getRuleNames();
+        Assert.assertEquals(ConfigurationRule.NAME, api.get(0));
+        Assert.assertTrue(api.contains("spec-impl-version"));
+        Assert.assertFalse(api.contains("new-spec-version"));
+
+        List<String> impl = RulePlan.compile(Spec.JarType.impl, true,
+                "javax.", empty, empty).getRuleNames();
+        Assert.assertTrue(impl.contains("new-impl-version"));
+        Assert.assertFalse(impl.contains("spec-impl-version"));
+    }
+
+    @Test
+    public void disableAndAddRules() {
+        Spec spec = TestDistribution.spec(1);
+        spec.setMetadata(TestDistribution.spec(2).getMetadata());
+        spec.verify();
+        Assert.assertFalse(spec.getErrors().isEmpty());
+        Assert.assertTrue(spec.getErrors().toString(),
+                spec.getErrors().toString().contains("Bundle-Version"));
+
+        spec.setDisabledRules(Arrays.asList(BundleVersionRule.NAME));
+        spec.setRules(Arrays.asList(AlwaysFail.class.getName()));
+        spec.verify();
+        Assert.assertFalse(spec.getErrors().toString(),
+                spec.getErrors().toString().contains("Bundle-Version"));
+        Assert.assertTrue(spec.getErrors().contains("ERROR: always fail"));
+    }
+
+    @Test
+    public void ruleConstructorFails() {
+        List<String> empty = Collections.emptyList();
+        try {
+            RulePlan.compile(Spec.JarType.api, false, "javax.", empty,
+                    Arrays.asList(FailToCreate.class.getName()));
+            Assert.fail("rule created");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import org.glassfish.spec.cli.SpecBatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class SpecBatchTest {
+
+    private static File write(File file, String... entries) throws Exception {
+        Properties props = new Properties();
+        for (int i = 0; i < entries.length; i += 2) {
+            props.setProperty(entries[i], entries[i + 1]);
+        }
+        OutputStream os = new FileOutputStream(file);
+        try {
+            props.store(os, null);
+        } finally {
+            os.close();
+        }
+        return file;
+    }
+
+    private static File specs() throws Exception {
+        File dir = Files.createTempDirectory("specs").toFile();
+        new File(dir, "web").mkdir();
+        write(new File(dir, "courgette.properties"),
+                "API_PACKAGE", "javax.courgette");
+        write(new File(dir, "carotte.properties"),
+                "API_PACKAGE", "javax.carotte");
+        write(new File(dir, "web/servlet.properties"),
+                "API_PACKAGE", "javax.servlet");
+        write(new File(dir, "README"), "API_PACKAGE", "none");
+        return dir;
+    }
+
+    @Test
+    public void loadDirectory() throws Exception {
+        File dir = specs();
+        Map<String, Properties> specs = SpecBatch.load(dir.getPath(), null);
+        Assert.assertEquals(Arrays.asList(
+                new File(dir, "carotte.properties").getPath(),
+                new File(dir, "courgette.properties").getPath()),
+                new ArrayList<String>(specs.keySet()));
+        Assert.assertEquals("javax.carotte", specs.values().iterator().next()
+                .getProperty("API_PACKAGE"));
+    }
+
+    @Test
+    public void loadGlob() throws Exception {
+        File dir = specs();
+        Properties defaults = new Properties();
+        defaults.setProperty("SPEC_MODE", "jakarta");
+        Map<String, Properties> specs = SpecBatch.load(
+                dir.getPath() + "/**/*.properties", defaults);
+        Assert.assertEquals(Arrays.asList(
+                new File(dir, "web/servlet.properties").getPath()),
+                new ArrayList<String>(specs.keySet()));
+        Assert.assertEquals("jakarta", specs.values().iterator().next()
+                .getProperty("SPEC_MODE"));
+        Assert.assertEquals(3, SpecBatch.load(
+                dir.getPath() + "/{*,**/*}.properties", null).size());
+    }
+
+    @Test
+    public void loadManifest() throws Exception {
+        File file = write(File.createTempFile("specs", ".properties"),
+                "SPEC_MODE", "jakarta",
+                "courgette.API_PACKAGE", "javax.courgette",
+                "javax.servlet.API_PACKAGE", "javax.servlet",
+                "javax.servlet.SPEC_MODE", "javaee");
+        Map<String, Properties> specs = SpecBatch.load(file.getPath(), null);
+        Assert.assertEquals(Arrays.asList("courgette", "javax.servlet"),
+                new ArrayList<String>(specs.keySet()));
+        Properties courgette = specs.get("courgette");
+        Assert.assertEquals("javax.courgette",
+                courgette.getProperty("API_PACKAGE"));
+        Assert.assertEquals("jakarta", courgette.getProperty("SPEC_MODE"));
+        Assert.assertEquals("javaee",
+                specs.get("javax.servlet").getProperty("SPEC_MODE"));
+    }
+
+    @Test
+    public void loadSingleFile() throws Exception {
+        File file = write(File.createTempFile("spec", ".properties"),
+                "API_PACKAGE", "javax.courgette");
+        Map<String, Properties> specs = SpecBatch.load(file.getPath(), null);
+        Assert.assertEquals(1, specs.size());
+        Assert.assertEquals("javax.courgette", specs.get(file.getPath())
+                .getProperty("API_PACKAGE"));
+    }
+}
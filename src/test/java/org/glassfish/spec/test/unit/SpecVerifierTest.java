@@ -0,0 +1,103 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.File;
+import java.util.List;
+import java.util.Properties;
+import org.glassfish.spec.cli.SpecVerifier;
+import org.glassfish.spec.test.TestJar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class SpecVerifierTest {
+
+    private static File jar(File file, String version) throws Exception {
+        return new TestJar()
+                .manifest()
+                .pom("com.sun.courgette", "javax.courgette", version)
+                .classes("com.sun.courgette.Hello")
+                .write(file);
+    }
+
+    @Test
+    public void reloadModifiedJar() throws Exception {
+        File file = jar(File.createTempFile("courgette", ".jar"), "1.0");
+        Properties props = new Properties();
+        props.setProperty("BASE_DIR", file.getParent());
+        props.setProperty("JAR_TYPE", "impl");
+        props.setProperty("IMPL_JAR", file.getName());
+        props.setProperty("API_PACKAGE", "javax.courgette");
+        props.setProperty("IMPL_NAMESPACE", "com.sun.courgette");
+        props.setProperty("SPEC_VERSION", "1.0");
+        props.setProperty("IMPL_VERSION", "1.0");
+
+        SpecVerifier verifier = new SpecVerifier();
+        List<String> before = verifier.verify(props);
+        Assert.assertEquals(before, verifier.verify(props));
+
+        jar(file, "1.1.1");
+        List<String> after = verifier.verify(props);
+        Assert.assertEquals(new SpecVerifier().verify(props), after);
+        Assert.assertFalse(before.equals(after));
+    }
+
+    @Test
+    public void nonFinalOverride() throws Exception {
+        File file = jar(File.createTempFile("courgette", ".jar"), "1.0");
+        Properties props = new Properties();
+        props.setProperty("JAR_TYPE", "impl");
+        props.setProperty("IMPL_JAR", file.getAbsolutePath());
+        props.setProperty("API_PACKAGE", "javax.courgette");
+        props.setProperty("IMPL_NAMESPACE", "com.sun.courgette");
+        props.setProperty("SPEC_VERSION", "1.0");
+        props.setProperty("IMPL_VERSION", "1.0");
+
+        SpecVerifier verifier = new SpecVerifier();
+        List<String> derived = verifier.verify(props);
+        props.setProperty("NON_FINAL", "true");
+        Assert.assertFalse(derived.equals(verifier.verify(props)));
+    }
+}
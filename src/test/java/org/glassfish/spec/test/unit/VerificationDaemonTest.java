@@ -0,0 +1,187 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import org.glassfish.spec.daemon.VerificationDaemon;
+import org.glassfish.spec.test.TestJar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class VerificationDaemonTest {
+
+    private static List<String> send(VerificationDaemon daemon,
+            String request) throws Exception {
+
+        return send(daemon.getPort(),
+                "TOKEN=" + daemon.getToken() + "\n" + request);
+    }
+
+    private static List<String> send(int port, String request)
+            throws Exception {
+
+        Socket socket = new Socket(InetAddress.getByName(null), port);
+        try {
+            OutputStream out = socket.getOutputStream();
+            out.write((request + "\n\n").getBytes("UTF-8"));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                    socket.getInputStream(), "UTF-8"));
+            List<String> lines = new ArrayList<String>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void missingJar() throws Exception {
+        VerificationDaemon daemon = new VerificationDaemon(0, 0);
+        try {
+            Properties request = new Properties();
+            request.setProperty("JAR_TYPE", "impl");
+            List<String> errors = daemon.verify(request);
+            Assert.assertEquals(1, errors.size());
+            Assert.assertTrue(errors.get(0).contains("IMPL_JAR"));
+        } finally {
+            daemon.close();
+        }
+    }
+
+    @Test
+    public void tokenFile() throws Exception {
+        VerificationDaemon daemon = new VerificationDaemon(0, 0);
+        try {
+            File file = new File(Files.createTempDirectory("spec-daemon")
+                    .toFile(), "daemon.token");
+            daemon.writeToken(file);
+            daemon.writeToken(file);
+            Assert.assertEquals(daemon.getToken(), Files.readAllLines(
+                    file.toPath(), Charset.forName("UTF-8")).get(0));
+            Set<PosixFilePermission> perms =
+                    Files.getPosixFilePermissions(file.toPath());
+            Assert.assertEquals(PosixFilePermissions.fromString("rw-------"),
+                    perms);
+        } finally {
+            daemon.close();
+        }
+    }
+
+    @Test
+    public void serveRequests() throws Exception {
+        File jar = new TestJar()
+                .manifest()
+                .pom("com.sun.courgette", "javax.courgette", "1.0")
+                .classes("com.sun.courgette.Hello")
+                .write();
+        final VerificationDaemon daemon = new VerificationDaemon(0, 0);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    daemon.run();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        };
+        thread.start();
+        try {
+            String request = "BASE_DIR=" + jar.getParent() + "\n"
+                    + "JAR_TYPE=impl\n"
+                    + "IMPL_JAR=" + jar.getName() + "\n"
+                    + "API_PACKAGE=javax.courgette\n"
+                    + "IMPL_NAMESPACE=com.sun.courgette\n"
+                    + "SPEC_VERSION=1.0\n"
+                    + "IMPL_VERSION=1.0";
+            Properties props = new Properties();
+            props.load(new StringReader(request));
+            List<String> expected = daemon.verify(props);
+            expected.add(expected.isEmpty()
+                    ? VerificationDaemon.OK : VerificationDaemon.FAILED);
+
+            Assert.assertEquals(expected, send(daemon, request));
+            Assert.assertEquals(expected, send(daemon, request));
+
+            List<String> missing = send(daemon,
+                    "JAR_TYPE=impl\nIMPL_JAR=does-not-exist.jar");
+            Assert.assertEquals(2, missing.size());
+            Assert.assertEquals(VerificationDaemon.FAILED, missing.get(1));
+
+            Assert.assertEquals(Arrays.asList("ERROR: invalid token",
+                    VerificationDaemon.FAILED),
+                    send(daemon.getPort(), request));
+            Assert.assertEquals(VerificationDaemon.FAILED, send(
+                    daemon.getPort(), "TOKEN=0\nCOMMAND=stop").get(1));
+            Assert.assertTrue(thread.isAlive());
+
+            Assert.assertEquals(VerificationDaemon.OK,
+                    send(daemon, "COMMAND=stop").get(0));
+            thread.join(10000);
+            Assert.assertFalse(thread.isAlive());
+        } finally {
+            daemon.close();
+        }
+    }
+}
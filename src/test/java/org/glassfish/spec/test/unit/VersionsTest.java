@@ -0,0 +1,82 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2013-2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.spec.test.unit;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.glassfish.spec.Versions;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author Romain Grecourt
+ */
+public class VersionsTest {
+
+    @Test
+    public void sharedVersionsAreImmutable() {
+        ArtifactVersion av = Versions.parse("2.4.3-b01");
+        Assert.assertSame(av, Versions.parse("2.4.3-b01"));
+        try {
+            av.parseVersion("9.9");
+            Assert.fail("shared version modified");
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+        Assert.assertEquals("2.4.3-b01", av.toString());
+        Assert.assertEquals(2, av.getMajorVersion());
+        Assert.assertEquals(4, av.getMinorVersion());
+        Assert.assertEquals(3, av.getIncrementalVersion());
+        Assert.assertEquals("b01", av.getQualifier());
+    }
+
+    @Test
+    public void compareVersions() {
+        ArtifactVersion av = Versions.parse("1.1");
+        Assert.assertTrue(av.compareTo(Versions.parse("1.0")) > 0);
+        Assert.assertTrue(av.compareTo(Versions.parse("1.1.1")) < 0);
+        Assert.assertEquals(0, av.compareTo(new DefaultArtifactVersion("1.1")));
+        Assert.assertEquals(av, new DefaultArtifactVersion("1.1"));
+        Assert.assertEquals(new DefaultArtifactVersion("1.1").hashCode(),
+                av.hashCode());
+    }
+}
@@ -0,0 +1,65 @@
+#!/bin/bash
+#
+# DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+#
+# Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+#
+# The contents of this file are subject to the terms of either the GNU
+# General Public License Version 2 only ("GPL") or the Common Development
+# and Distribution License("CDDL") (collectively, the "License").  You
+# may not use this file except in compliance with the License.  You can
+# obtain a copy of the License at
+# https://oss.oracle.com/licenses/CDDL+GPL-1.1
+# or LICENSE.txt.  See the License for the specific
+# language governing permissions and limitations under the License.
+#
+# When distributing the software, include this License Header Notice in each
+# file and include the License file at LICENSE.txt.
+#
+# GPL Classpath Exception:
+# Oracle designates this particular file as subject to the "Classpath"
+# exception as provided by Oracle in the GPL Version 2 section of the License
+# file that accompanied this code.
+#
+# Modifications:
+# If applicable, add the following below the License Header, with the fields
+# enclosed by brackets [] replaced by your own identifying information:
+# "Portions Copyright [year] [name of copyright owner]"
+#
+# Contributor(s):
+# If you wish your version of this file to be governed by only the CDDL or
+# only the GPL Version 2, indicate your decision by adding "[Contributor]
+# elects to include this software in this distribution under the [CDDL or GPL
+# Version 2] license."  If you don't indicate a single choice of license, a
+# recipient has the option to distribute your version of this file under
+# either the CDDL, the GPL Version 2 or to extend the choice of license to
+# its licensees as provided above.  However, if you add GPL Version 2 code
+# and therefore, elected the GPL Version 2 license, then the option applies
+# only if the new code is made subject to such option by the copyright
+# holder.
+#
+
+# Run the standalone verifier. The class data sharing archive created at
+# build time is used when it matches the version of the JDK.
+
+dir=`cd "$(dirname "$0")" && pwd`
+if [ -n "${JAVA_HOME}" ]
+then
+  java="${JAVA_HOME}/bin/java"
+else
+  java=`command -v java`
+fi
+
+opts="-XX:TieredStopAtLevel=1"
+release="$(dirname "$(dirname "$(readlink -f "${java}")")")/release"
+if [ -f "${release}" ]
+then
+  version=`sed -n 's/^JAVA_VERSION="\(.*\)"$/\1/p' "${release}"`
+  archive="${dir}/spec-verifier-${version}.jsa"
+  if [ -f "${archive}" ]
+  then
+    opts="${opts} -Xshare:auto -XX:SharedArchiveFile=${archive}"
+  fi
+fi
+
+exec "${java}" ${opts} -jar "${dir}/spec-verifier.jar" "$@"